@@ -3,23 +3,49 @@ package br.com.portfolio.api;
 
 import static org.springframework.util.MimeTypeUtils.APPLICATION_JSON_VALUE;
 
+import br.com.portfolio.domain.payload.CreateCustomerBatchPayload;
 import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.payload.DistanceMatrixPayload;
+import br.com.portfolio.domain.payload.GeoBatchPayload;
+import br.com.portfolio.domain.payload.GeoPolygonPayload;
+import br.com.portfolio.domain.payload.PatchCustomerPayload;
 import br.com.portfolio.domain.payload.UpdateCustomerPayload;
+import br.com.portfolio.domain.response.CustomerBatchResponse;
+import br.com.portfolio.domain.response.CustomerChangesResponse;
+import br.com.portfolio.domain.response.CustomerCompactDistanceResponse;
 import br.com.portfolio.domain.response.CustomerDistanceResponse;
+import br.com.portfolio.domain.response.CustomerExportResponse;
 import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.response.DistanceMatrixResponse;
 import br.com.portfolio.domain.response.ErrorResponse;
+import br.com.portfolio.domain.response.GeoGridCellResponse;
+import br.com.portfolio.domain.search.CountMode;
 import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoSearchParams;
 import br.com.portfolio.swagger.resource.ApiPageable;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.ResponseHeader;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PastOrPresent;
+import javax.validation.constraints.Pattern;
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,6 +55,9 @@ import springfox.documentation.annotations.ApiIgnore;
 @Api(tags = "Customer Api")
 public interface CustomerApi {
 
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    String NDJSON_VALUE = "application/x-ndjson";
+
     @ApiOperation(value = "Create new Customer")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Created"),
@@ -39,6 +68,17 @@ public interface CustomerApi {
             @ApiResponse(code = 500, message = "Internal Server Error")})
     CustomerResponse create(@ApiParam(required = true) @Valid CreateCustomerPayload payload);
 
+    @ApiOperation(value = "Create many Customers", notes = "Each customer is validated, checked for duplicates and "
+            + "geocoded on its own, and its result holds the status the single create would have answered. The "
+            + "customers that pass are stored with one bulk insert.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerBatchResponse.class),
+            @ApiResponse(code = 400, message = "Empty or too large batch"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    CustomerBatchResponse createBatch(@ApiParam(required = true) @Valid CreateCustomerBatchPayload payload);
+
     @ApiOperation(value = "Update customer")
     @ApiResponses(value = {
             @ApiResponse(code = 202, message = "Accepted"),
@@ -50,6 +90,17 @@ public interface CustomerApi {
     CustomerResponse update(@ApiParam(value = "Customer hexadecimal id", required = true) ObjectId id,
             @ApiParam(required = true) @Valid UpdateCustomerPayload payload);
 
+    @ApiOperation(value = "Partially update customer", notes = "Only the fields present are changed; the address is re-geocoded only when it changes.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 202, message = "Accepted"),
+            @ApiResponse(code = 400, message = "Invalid id value or payload value(s)"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 404, message = "Customer not found"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    CustomerResponse patch(@ApiParam(value = "Customer hexadecimal id", required = true) ObjectId id,
+            @ApiParam(required = true) @Valid PatchCustomerPayload payload);
+
     @ApiOperation(value = "Find Customer by id")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Ok", response = CustomerResponse.class),
@@ -77,15 +128,196 @@ public interface CustomerApi {
             @ApiResponse(code = 400, message = "Invalid parameter value was sent", response = ErrorResponse.class, responseContainer = "List"),
             @ApiResponse(code = 500, message = "An unexpected error occurred", response = ErrorResponse.class)})
     @ApiPageable
-    Page<CustomerResponse> findAll(@ApiIgnore @PageableDefault(direction = Sort.Direction.DESC, sort = "id") Pageable pageable, CustomerSearchParams search);
+    Page<CustomerResponse> findAll(@ApiIgnore @PageableDefault(direction = Sort.Direction.DESC, sort = "id") Pageable pageable, CustomerSearchParams search,
+            @ApiParam(value = "How the total is obtained: EXACT counts on every request, ESTIMATED reads the collection "
+                    + "size when there are no filters, CACHED reuses a recent count of the same filters",
+                    defaultValue = "EXACT") CountMode count);
+
+    @ApiOperation(value = "Finds all Customers without a total", produces = APPLICATION_JSON_VALUE, notes = "Opt in with "
+            + "paging=slice. No count runs; last tells whether a next page exists.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of Customers returned with success", response = CustomerResponse.class),
+            @ApiResponse(code = 401, message = "Unauthorized", response = ErrorResponse.class),
+            @ApiResponse(code = 400, message = "Invalid parameter value was sent", response = ErrorResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 500, message = "An unexpected error occurred", response = ErrorResponse.class)})
+    @ApiPageable
+    Slice<CustomerResponse> findSlice(@ApiParam(value = "Paging mode", allowableValues = "slice", required = true) String paging,
+            @ApiIgnore @PageableDefault(direction = Sort.Direction.DESC, sort = "id") Pageable pageable, CustomerSearchParams search);
+
+    @ApiOperation(value = "Finds all Customers with cursor paging", produces = APPLICATION_JSON_VALUE, notes = "Opt in "
+            + "with paging=cursor. Pages seek on an index instead of skipping, so deep pages are as fast as the first. "
+            + "When more customers follow, the " + NEXT_CURSOR_HEADER + " response header holds the cursor for the "
+            + "next page; it must be sent with the same sortBy and direction.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of Customers returned with success", response = CustomerResponse.class,
+                    responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page",
+                            response = String.class)),
+            @ApiResponse(code = 401, message = "Unauthorized", response = ErrorResponse.class),
+            @ApiResponse(code = 400, message = "Invalid parameter or cursor value", response = ErrorResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 500, message = "An unexpected error occurred", response = ErrorResponse.class)})
+    List<CustomerResponse> findAllByCursor(
+            @ApiParam(value = "Paging mode", allowableValues = "cursor", required = true) String paging,
+            @ApiParam(value = "Sort field", allowableValues = "id,documentNumber", defaultValue = "id")
+            @Pattern(regexp = "id|documentNumber") String sortBy,
+            @ApiParam(value = "Sort direction", defaultValue = "DESC") Sort.Direction direction,
+            @ApiParam(value = "Page size", defaultValue = "100") @Min(1) @Max(1000) Integer limit,
+            @ApiParam(value = "Cursor returned in " + NEXT_CURSOR_HEADER + " by the previous page") String cursor,
+            CustomerSearchParams search, @ApiIgnore HttpServletResponse response);
+
+    @ApiOperation(value = "Export Customers", produces = NDJSON_VALUE, notes = "One JSON object per line, streamed from "
+            + "a single database cursor, in no particular order. Each line carries lastModifiedDate; the greatest one "
+            + "seen is the modifiedSince of the next incremental export.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerExportResponse.class),
+            @ApiResponse(code = 400, message = "Invalid modifiedSince value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    void export(@ApiParam(value = "Only customers modified after this instant, e.g. 2024-01-31T23:59:59")
+            LocalDateTime modifiedSince, @ApiIgnore HttpServletResponse response) throws IOException;
+
+    @ApiOperation(value = "Read Customer changes", notes = "Modifications and deletions after the token, oldest first. "
+            + "Start with no token, or with since to skip older changes, then pass the returned token on every call. "
+            + "Changes are delivered at least once and the last seconds of writes are held back until they settle.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerChangesResponse.class),
+            @ApiResponse(code = 400, message = "Invalid token, since or limit value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 410, message = "Token older than the deletion history, sync from scratch"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    CustomerChangesResponse findChanges(
+            @ApiParam(value = "Token returned by the previous call") String token,
+            @ApiParam(value = "First call only: changes after this instant, e.g. 2024-01-31T23:59:59")
+            @PastOrPresent LocalDateTime since,
+            @ApiParam(value = "Maximum modifications and deletions each", defaultValue = "500") @Min(1) @Max(1000) Integer limit);
+
+    @ApiOperation(value = "Find Nearest Customers by id", notes = "Nearest first. When more customers are in range, "
+            + "the " + NEXT_CURSOR_HEADER + " response header holds the cursor for the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerDistanceResponse.class,
+                    responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page",
+                            response = String.class)),
+            @ApiResponse(code = 400, message = "Invalid id, limit, cursor or filter value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 404, message = "Customer not found"),
+            @ApiResponse(code = 409, message = "Customer not geocoded yet"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerDistanceResponse> findByLocationNear(@RequestParam Integer maxDistanceInKm, @PathVariable ObjectId id,
+            @ApiParam(value = "Page size", defaultValue = "100") @Min(1) @Max(1000) Integer limit,
+            @ApiParam(value = "Cursor returned in " + NEXT_CURSOR_HEADER + " by the previous page") String cursor,
+            @Valid GeoSearchParams filters, @ApiIgnore HttpServletResponse response);
+
+    @ApiOperation(value = "Find Nearest Customers by id, compact view", notes = "Same search and paging as the full "
+            + "view, selected with view=compact. Only id, name and distance are read and returned.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerCompactDistanceResponse.class,
+                    responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page",
+                            response = String.class)),
+            @ApiResponse(code = 400, message = "Invalid id, limit, cursor or filter value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 404, message = "Customer not found"),
+            @ApiResponse(code = 409, message = "Customer not geocoded yet"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerCompactDistanceResponse> findCompactByLocationNear(@RequestParam Integer maxDistanceInKm,
+            @PathVariable ObjectId id,
+            @ApiParam(value = "Page size", defaultValue = "100") @Min(1) @Max(1000) Integer limit,
+            @ApiParam(value = "Cursor returned in " + NEXT_CURSOR_HEADER + " by the previous page") String cursor,
+            @Valid GeoSearchParams filters, @ApiIgnore HttpServletResponse response);
 
-    @ApiOperation(value = "Find Nearest Customers by id")
+    @ApiOperation(value = "Find the k nearest Customers to a customer", notes = "Nearest first, no radius needed.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Ok", response = CustomerDistanceResponse.class),
-            @ApiResponse(code = 400, message = "Invalid id value"),
+            @ApiResponse(code = 400, message = "Invalid id or k value"),
             @ApiResponse(code = 401, message = "Unauthorized"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Customer not found"),
+            @ApiResponse(code = 409, message = "Customer not geocoded yet"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerDistanceResponse> findNearest(@ApiParam(value = "Customer hexadecimal id", required = true) ObjectId id,
+            @ApiParam(value = "Number of customers", defaultValue = "10") @Min(1) @Max(1000) Integer k);
+
+    @ApiOperation(value = "Find the k nearest Customers to a coordinate", notes = "Nearest first, no radius needed.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerDistanceResponse.class),
+            @ApiResponse(code = 400, message = "Invalid coordinate or k value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerDistanceResponse> findNearest(
+            @ApiParam(value = "Latitude", required = true) @NotNull @DecimalMin("-90") @DecimalMax("90") Double lat,
+            @ApiParam(value = "Longitude", required = true) @NotNull @DecimalMin("-180") @DecimalMax("180") Double lng,
+            @ApiParam(value = "Number of customers", defaultValue = "10") @Min(1) @Max(1000) Integer k);
+
+    @ApiOperation(value = "Find Customers near many Customers",
+            notes = "Results keyed by origin id, in request order. Unknown ids are left out and customers not "
+                    + "geocoded yet have no results.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok"),
+            @ApiResponse(code = 400, message = "Invalid payload value(s)"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    Map<String, List<CustomerDistanceResponse>> findByLocationNear(@ApiParam(required = true) @Valid GeoBatchPayload payload);
+
+    @ApiOperation(value = "Find Customers inside a polygon", notes = "Id order. When more customers are inside, the "
+            + NEXT_CURSOR_HEADER + " response header holds the cursor for the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerResponse.class,
+                    responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page",
+                            response = String.class)),
+            @ApiResponse(code = 400, message = "Invalid polygon, limit or cursor value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerResponse> findWithin(@ApiParam(required = true) @Valid GeoPolygonPayload payload,
+            @ApiParam(value = "Page size", defaultValue = "100") @Min(1) @Max(1000) Integer limit,
+            @ApiParam(value = "Cursor returned in " + NEXT_CURSOR_HEADER + " by the previous page") String cursor,
+            @ApiIgnore HttpServletResponse response);
+
+    @ApiOperation(value = "Find Customers inside a bounding box", notes = "Id order. When more customers are inside, "
+            + "the " + NEXT_CURSOR_HEADER + " response header holds the cursor for the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = CustomerResponse.class,
+                    responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page",
+                            response = String.class)),
+            @ApiResponse(code = 400, message = "Invalid box, limit or cursor value"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<CustomerResponse> findWithinBox(
+            @ApiParam(value = "South latitude", required = true) @NotNull @DecimalMin("-90") @DecimalMax("90") Double minLat,
+            @ApiParam(value = "West longitude", required = true) @NotNull @DecimalMin("-180") @DecimalMax("180") Double minLng,
+            @ApiParam(value = "North latitude", required = true) @NotNull @DecimalMin("-90") @DecimalMax("90") Double maxLat,
+            @ApiParam(value = "East longitude", required = true) @NotNull @DecimalMin("-180") @DecimalMax("180") Double maxLng,
+            @ApiParam(value = "Page size", defaultValue = "100") @Min(1) @Max(1000) Integer limit,
+            @ApiParam(value = "Cursor returned in " + NEXT_CURSOR_HEADER + " by the previous page") String cursor,
+            @ApiIgnore HttpServletResponse response);
+
+    @ApiOperation(value = "Count Customers per grid cell", notes = "Cells span 360 / 2^precision degrees. The box is "
+            + "widened to whole cells and only cells holding customers are returned.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = GeoGridCellResponse.class),
+            @ApiResponse(code = 400, message = "Invalid box or precision, or too many cells"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    List<GeoGridCellResponse> aggregateGrid(
+            @ApiParam(value = "South latitude", required = true) @NotNull @DecimalMin("-90") @DecimalMax("90") Double minLat,
+            @ApiParam(value = "West longitude", required = true) @NotNull @DecimalMin("-180") @DecimalMax("180") Double minLng,
+            @ApiParam(value = "North latitude", required = true) @NotNull @DecimalMin("-90") @DecimalMax("90") Double maxLat,
+            @ApiParam(value = "East longitude", required = true) @NotNull @DecimalMin("-180") @DecimalMax("180") Double maxLng,
+            @ApiParam(value = "Grid precision", required = true) @NotNull @Min(1) @Max(24) Integer precision);
+
+    @ApiOperation(value = "Compute distances among Customers", notes = "Returns the full matrix, or only the pairs at "
+            + "most maxDistanceInKm apart when it is given. Unknown and not geocoded ids are listed as missing.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ok", response = DistanceMatrixResponse.class),
+            @ApiResponse(code = 400, message = "Invalid payload, or too many customers or pairs"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 500, message = "Internal Server Error")})
-    List<CustomerDistanceResponse> findByLocationNear(@RequestParam Integer maxDistanceInKm, @PathVariable ObjectId id);
+    DistanceMatrixResponse computeDistanceMatrix(@ApiParam(required = true) @Valid DistanceMatrixPayload payload);
 }
@@ -0,0 +1,45 @@
+package br.com.portfolio.component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class AddressNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern SPACE_BEFORE_PUNCTUATION = Pattern.compile("\\s+([,.;])");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private AddressNormalizer() {
+    }
+
+    public static String normalize(String address) {
+        if (address == null) {
+            return "";
+        }
+        var normalized = Normalizer.normalize(address.trim(), Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("");
+        normalized = SPACES.matcher(normalized).replaceAll(" ");
+        normalized = SPACE_BEFORE_PUNCTUATION.matcher(normalized).replaceAll("$1");
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+
+    public static String hash(String address) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(normalize(address).getBytes(StandardCharsets.UTF_8));
+            var hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
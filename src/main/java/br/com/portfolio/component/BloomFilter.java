@@ -0,0 +1,77 @@
+package br.com.portfolio.component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Optimal sizing for {@code expectedInsertions}: {@code -n ln p / ln² 2} bits and {@code (m / n) ln 2} hashes.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        var insertions = Math.max(1, expectedInsertions);
+        var size = (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        var words = Math.toIntExact(Math.max(1, (size + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * LN2));
+    }
+
+    public void put(String value) {
+        var hash1 = hash(value);
+        var hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            var index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            var word = (int) (index >>> 6);
+            var mask = 1L << index;
+            var current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        var hash1 = hash(value);
+        var hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            var index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, forced odd so successive probes never collapse onto the same bit.
+     */
+    private static long mix(long hash) {
+        var z = hash + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return (z ^ (z >>> 31)) | 1;
+    }
+}
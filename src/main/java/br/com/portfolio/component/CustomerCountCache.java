@@ -0,0 +1,45 @@
+package br.com.portfolio.component;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.search.CustomerSearchParams;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listing totals keyed by filters. Entries are not cleared on writes: callers opting in accept totals up to
+ * {@code expire-after-write} old, which is what spares the count on busy collections.
+ */
+@Component
+@Slf4j
+public class CustomerCountCache implements MeterBinder {
+
+    private final Cache<CustomerSearchParams, Long> cache;
+
+    public CustomerCountCache(@Value("${local.customers.count-cache.max-size:1000}") long maxSize,
+            @Value("${local.customers.count-cache.expire-after-write:PT30S}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        log.info("Customer count cache created: {} {}", kv("maxSize", maxSize), kv("expireAfterWrite", expireAfterWrite));
+    }
+
+    public long get(CustomerSearchParams search, Function<CustomerSearchParams, Long> loader) {
+        return cache.get(search, loader);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "customer-counts");
+    }
+}
@@ -0,0 +1,184 @@
+package br.com.portfolio.component;
+
+import br.com.portfolio.exception.DistanceMatrixTooLargeException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.data.geo.Metrics;
+
+/**
+ * Pairwise great-circle distances in kilometers among a set of points, computed with fork/join over primitive arrays.
+ * Points use the axes of {@link SpatialGrid}, so values agree with the geo-near endpoints. Rows are split into small
+ * tasks because row {@code i} only computes the columns after it, and work stealing evens out the triangle.
+ */
+public class DistanceMatrix {
+
+    private static final double EARTH_RADIUS_KM = Metrics.KILOMETERS.getMultiplier();
+    private static final int ROWS_PER_TASK = 16;
+
+    private final int size;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] cosYs;
+
+    public DistanceMatrix(double[] xs, double[] ys) {
+        this.size = xs.length;
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.cosYs = new double[size];
+        for (int i = 0; i < size; i++) {
+            this.xs[i] = Math.toRadians(xs[i]);
+            this.ys[i] = Math.toRadians(ys[i]);
+            this.cosYs[i] = Math.cos(this.ys[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double[] dense(ForkJoinPool pool) {
+        var result = new double[size * size];
+        pool.invoke(new DenseTask(result, 0, size));
+        return result;
+    }
+
+    /**
+     * Pairs {@code i < j} at most {@code maxDistanceKm} apart, in row order. Fails once more than {@code maxPairs} are
+     * found, before the whole triangle is computed.
+     */
+    public Pairs within(ForkJoinPool pool, double maxDistanceKm, int maxPairs) {
+        return pool.invoke(new PairsTask(maxDistanceKm, maxPairs, new AtomicInteger(), 0, size));
+    }
+
+    private double distance(int i, int j) {
+        var sinY = Math.sin((ys[j] - ys[i]) / 2);
+        var sinX = Math.sin((xs[j] - xs[i]) / 2);
+        var a = sinY * sinY + cosYs[i] * cosYs[j] * sinX * sinX;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private final class DenseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final double[] result;
+        private final int from;
+        private final int to;
+
+        DenseTask(double[] result, int from, int to) {
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                var middle = (from + to) >>> 1;
+                invokeAll(new DenseTask(result, from, middle), new DenseTask(result, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    var distance = distance(i, j);
+                    result[i * size + j] = distance;
+                    result[j * size + i] = distance;
+                }
+            }
+        }
+    }
+
+    private final class PairsTask extends RecursiveTask<Pairs> {
+
+        private static final long serialVersionUID = 1L;
+        private final double maxDistanceKm;
+        private final int maxPairs;
+        private final AtomicInteger found;
+        private final int from;
+        private final int to;
+
+        PairsTask(double maxDistanceKm, int maxPairs, AtomicInteger found, int from, int to) {
+            this.maxDistanceKm = maxDistanceKm;
+            this.maxPairs = maxPairs;
+            this.found = found;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Pairs compute() {
+            if (to - from > ROWS_PER_TASK) {
+                var middle = (from + to) >>> 1;
+                var second = new PairsTask(maxDistanceKm, maxPairs, found, middle, to);
+                second.fork();
+                var first = new PairsTask(maxDistanceKm, maxPairs, found, from, middle).compute();
+                return first.append(second.join());
+            }
+            var pairs = new Pairs();
+            for (int i = from; i < to; i++) {
+                var rowStart = pairs.size;
+                for (int j = i + 1; j < size; j++) {
+                    var distance = distance(i, j);
+                    if (distance <= maxDistanceKm) {
+                        pairs.add(i, j, distance);
+                    }
+                }
+                if (found.addAndGet(pairs.size - rowStart) > maxPairs) {
+                    throw new DistanceMatrixTooLargeException();
+                }
+            }
+            return pairs;
+        }
+    }
+
+    public static final class Pairs {
+
+        private int[] firsts = new int[16];
+        private int[] seconds = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public int first(int index) {
+            return firsts[index];
+        }
+
+        public int second(int index) {
+            return seconds[index];
+        }
+
+        public double distance(int index) {
+            return distances[index];
+        }
+
+        private void add(int first, int second, double distance) {
+            ensureCapacity(size + 1);
+            firsts[size] = first;
+            seconds[size] = second;
+            distances[size++] = distance;
+        }
+
+        private Pairs append(Pairs other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.firsts, 0, firsts, size, other.size);
+            System.arraycopy(other.seconds, 0, seconds, size, other.size);
+            System.arraycopy(other.distances, 0, distances, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > firsts.length) {
+                var grown = Math.max(capacity, firsts.length * 2);
+                firsts = Arrays.copyOf(firsts, grown);
+                seconds = Arrays.copyOf(seconds, grown);
+                distances = Arrays.copyOf(distances, grown);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.portfolio.component;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.response.GeoGridCellResponse;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grid aggregations keyed by precision and snapped cell block. A customer write only changes the cells holding its
+ * previous and new position, so writes seen by this node evict the blocks holding those; positions this node does not
+ * know, and writes made by other nodes, show once entries expire.
+ */
+@Component
+@Slf4j
+public class GeoGridCache implements MeterBinder {
+
+    private final Cache<GeoGridQuery, List<GeoGridCellResponse>> cache;
+
+    public GeoGridCache(@Value("${local.customers.geo-grid.cache.max-size:1000}") long maxSize,
+            @Value("${local.customers.geo-grid.cache.expire-after-write:PT1M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        log.info("Geo grid cache created: {} {}", kv("maxSize", maxSize), kv("expireAfterWrite", expireAfterWrite));
+    }
+
+    public List<GeoGridCellResponse> get(GeoGridQuery query, Function<GeoGridQuery, List<GeoGridCellResponse>> loader) {
+        return cache.get(query, loader);
+    }
+
+    public void invalidate(Collection<Point> positions) {
+        if (!positions.isEmpty()) {
+            cache.asMap().keySet().removeIf(query -> positions.stream()
+                    .anyMatch(position -> query.contains(position.getX(), position.getY())));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "geo-grid");
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.portfolio.component;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class GeocodeCache implements MeterBinder {
+
+    private final Cache<String, List<Double>> cache;
+
+    public GeocodeCache(@Value("${local.geolocation.cache.max-size:10000}") long maxSize,
+            @Value("${local.geolocation.cache.expire-after-write:PT24H}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        log.info("Geocode cache created: {} {}", kv("maxSize", maxSize), kv("expireAfterWrite", expireAfterWrite));
+    }
+
+    public Optional<List<Double>> get(String address) {
+        return Optional.ofNullable(cache.getIfPresent(AddressNormalizer.normalize(address)));
+    }
+
+    public void put(String address, List<Double> latLong) {
+        cache.put(AddressNormalizer.normalize(address), List.copyOf(latLong));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "geocodes");
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.portfolio.component;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.Customer;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops customer indexes replaced by newer definitions. Auto index creation only adds indexes, and the single-field
+ * 2dsphere index on {@code contact} must go once {@link Customer#GEO_INDEX} exists: with two 2dsphere indexes
+ * {@code $geoNear} refuses to pick one. The unique index on {@code documentNumber} alone would keep a deleted
+ * customer's number taken, so it gives way to {@link Customer#DOCUMENT_NUMBER_INDEX}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyIndexCleaner {
+
+    private static final Set<String> LEGACY_INDEXES = Set.of("contact", "documentNumber");
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropLegacyIndexes() {
+        var indexOps = mongoTemplate.indexOps(Customer.class);
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(LEGACY_INDEXES::contains)
+                .forEach(name -> {
+                    indexOps.dropIndex(name);
+                    log.info("Legacy index dropped: {}", kv("index", name));
+                });
+    }
+}
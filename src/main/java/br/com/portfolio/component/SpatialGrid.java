@@ -0,0 +1,265 @@
+package br.com.portfolio.component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import lombok.Value;
+import org.bson.types.ObjectId;
+import org.springframework.data.geo.Metrics;
+
+/**
+ * Points use the axes of the 2dsphere index ({@code x} as longitude, {@code y} as latitude) and distances the sphere
+ * of {@link Metrics#KILOMETERS}, so results agree with Mongo's. Not thread-safe.
+ */
+public class SpatialGrid {
+
+    private static final double EARTH_RADIUS_KM = Metrics.KILOMETERS.getMultiplier();
+
+    private final double cellSize;
+    private final Map<ObjectId, Integer> slots = new HashMap<>();
+    private final Map<Long, Bucket> cells = new HashMap<>();
+    private double[] xs = new double[1024];
+    private double[] ys = new double[1024];
+    private long[] cellOfSlot = new long[1024];
+    private ObjectId[] ids = new ObjectId[1024];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int used;
+
+    public SpatialGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void put(ObjectId id, double x, double y) {
+        var slot = slots.get(id);
+        if (slot != null) {
+            var cell = cell(x, y);
+            xs[slot] = x;
+            ys[slot] = y;
+            if (cell != cellOfSlot[slot]) {
+                unlink(slot);
+                cells.computeIfAbsent(cell, key -> new Bucket()).add(slot);
+                cellOfSlot[slot] = cell;
+            }
+            return;
+        }
+        slot = allocate();
+        ids[slot] = id;
+        xs[slot] = x;
+        ys[slot] = y;
+        cellOfSlot[slot] = cell(x, y);
+        cells.computeIfAbsent(cellOfSlot[slot], key -> new Bucket()).add(slot);
+        slots.put(id, slot);
+    }
+
+    public void remove(ObjectId id) {
+        var slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        unlink(slot);
+        ids[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    public double[] get(ObjectId id) {
+        var slot = slots.get(id);
+        return slot == null ? null : new double[]{xs[slot], ys[slot]};
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public List<Neighbor> within(double x, double y, double radiusKm) {
+        var result = new ArrayList<Neighbor>();
+        forEachCandidateSlot(x, y, radiusKm, slot -> {
+            var distance = distance(x, y, xs[slot], ys[slot]);
+            if (distance <= radiusKm) {
+                result.add(new Neighbor(ids[slot], distance));
+            }
+        });
+        result.sort(Comparator.comparingDouble(Neighbor::getDistance).thenComparing(Neighbor::getId));
+        return result;
+    }
+
+    /**
+     * Searches growing rings of cells and stops once no unvisited cell can hold a point closer than the {@code k}th.
+     */
+    public List<Neighbor> nearest(double x, double y, int k, ObjectId excluded) {
+        var heap = new PriorityQueue<Neighbor>(k + 1, Comparator.comparingDouble(Neighbor::getDistance).reversed());
+        SlotVisitor visitor = slot -> {
+            if (ids[slot].equals(excluded)) {
+                return;
+            }
+            var distance = distance(x, y, xs[slot], ys[slot]);
+            if (heap.size() < k) {
+                heap.add(new Neighbor(ids[slot], distance));
+            } else if (distance < heap.peek().getDistance()) {
+                heap.poll();
+                heap.add(new Neighbor(ids[slot], distance));
+            }
+        };
+
+        var centerX = (long) Math.floor(x / cellSize);
+        var centerY = (long) Math.floor(y / cellSize);
+        for (long ring = 0; ; ring++) {
+            var side = 2 * ring + 1;
+            if (side * side > cells.size()) {
+                heap.clear();
+                cells.values().forEach(bucket -> bucket.forEach(visitor));
+                break;
+            }
+            forEachRingCell(centerX, centerY, ring, visitor);
+            if (heap.size() == k && heap.peek().getDistance() <= coveredDistance(x, y, centerX, centerY, ring)) {
+                break;
+            }
+        }
+
+        var result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(Neighbor::getDistance));
+        return result;
+    }
+
+    public static double distance(double x1, double y1, double x2, double y2) {
+        var lat1 = Math.toRadians(y1);
+        var lat2 = Math.toRadians(y2);
+        var sinLat = Math.sin((lat2 - lat1) / 2);
+        var sinLng = Math.sin(Math.toRadians(x2 - x1) / 2);
+        var a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Visits the slots of every cell the circle can touch. Circles reaching a pole or the antimeridian, or covering
+     * more cells than are populated, fall back to visiting every populated cell.
+     */
+    private void forEachCandidateSlot(double x, double y, double radiusKm, SlotVisitor visitor) {
+        var latSpan = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        var maxLat = Math.abs(y) + latSpan;
+        var lngSpan = maxLat >= 90 ? 360 : Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxLat))));
+        var minCellX = (long) Math.floor((x - lngSpan) / cellSize);
+        var maxCellX = (long) Math.floor((x + lngSpan) / cellSize);
+        var minCellY = (long) Math.floor((y - latSpan) / cellSize);
+        var maxCellY = (long) Math.floor((y + latSpan) / cellSize);
+        var cellCount = (double) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+
+        if (x - lngSpan < -180 || x + lngSpan > 180 || cellCount > cells.size()) {
+            cells.values().forEach(bucket -> bucket.forEach(visitor));
+            return;
+        }
+        for (var cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (var cellY = minCellY; cellY <= maxCellY; cellY++) {
+                var bucket = cells.get(key(cellX, cellY));
+                if (bucket != null) {
+                    bucket.forEach(visitor);
+                }
+            }
+        }
+    }
+
+    private void forEachRingCell(long centerX, long centerY, long ring, SlotVisitor visitor) {
+        for (var cellX = centerX - ring; cellX <= centerX + ring; cellX++) {
+            for (var cellY = centerY - ring; cellY <= centerY + ring; cellY++) {
+                if (Math.abs(cellX - centerX) != ring && Math.abs(cellY - centerY) != ring) {
+                    continue;
+                }
+                var bucket = cells.get(key(cellX, cellY));
+                if (bucket != null) {
+                    bucket.forEach(visitor);
+                }
+            }
+        }
+    }
+
+    private double coveredDistance(double x, double y, long centerX, long centerY, long ring) {
+        var latMargin = Math.min(y - (centerY - ring) * cellSize, (centerY + ring + 1) * cellSize - y);
+        var lngMargin = Math.min(x - (centerX - ring) * cellSize, (centerX + ring + 1) * cellSize - x);
+        var maxLat = Math.abs(y) + latMargin;
+        if (maxLat >= 90) {
+            return 0;
+        }
+        var latDistance = EARTH_RADIUS_KM * Math.toRadians(latMargin);
+        var lngDistance = 2 * EARTH_RADIUS_KM
+                * Math.asin(Math.cos(Math.toRadians(maxLat)) * Math.sin(Math.toRadians(lngMargin) / 2));
+        return Math.min(latDistance, lngDistance);
+    }
+
+    private void unlink(int slot) {
+        var bucket = cells.get(cellOfSlot[slot]);
+        bucket.remove(slot);
+        if (bucket.size == 0) {
+            cells.remove(cellOfSlot[slot]);
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (used == ids.length) {
+            var capacity = used * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            cellOfSlot = Arrays.copyOf(cellOfSlot, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        return used++;
+    }
+
+    private long cell(double x, double y) {
+        return key((long) Math.floor(x / cellSize), (long) Math.floor(y / cellSize));
+    }
+
+    private static long key(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+
+    @FunctionalInterface
+    private interface SlotVisitor {
+
+        void visit(int slot);
+    }
+
+    private static final class Bucket {
+
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+
+        void forEach(SlotVisitor visitor) {
+            for (int i = 0; i < size; i++) {
+                visitor.visit(slots[i]);
+            }
+        }
+    }
+
+    @Value
+    public static class Neighbor {
+
+        ObjectId id;
+        double distance;
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.portfolio.configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CustomerSearchConfig {
+
+    /**
+     * Runs the searches of a batch geo request in parallel. When the queue is full the request thread runs the search
+     * itself, which throttles callers instead of failing them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor geoSearchExecutor(@Value("${local.customers.geo-batch.pool-size:8}") int poolSize,
+            @Value("${local.customers.geo-batch.queue-capacity:500}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("geo-search-");
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool distanceMatrixPool(@Value("${local.customers.distance-matrix.parallelism:4}") int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.portfolio.configuration;
+
+import com.google.maps.GeoApiContext;
+import com.google.maps.OkHttpRequestHandler;
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class GeolocationConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public GeoApiContext geoApiContext(@Value("${local.geolocation.key}") String geolocationKey,
+            @Value("${local.geolocation.client.max-idle-connections:10}") int maxIdleConnections,
+            @Value("${local.geolocation.client.keep-alive:PT5M}") Duration keepAlive,
+            @Value("${local.geolocation.client.queries-per-second:50}") int queriesPerSecond,
+            @Value("${local.geolocation.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${local.geolocation.client.read-timeout:PT5S}") Duration readTimeout,
+            @Value("${local.geolocation.client.max-retries:2}") int maxRetries) {
+        var requestHandler = new OkHttpRequestHandler.Builder();
+        requestHandler.okHttpClientBuilder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS));
+
+        return new GeoApiContext.Builder(requestHandler)
+                .apiKey(geolocationKey)
+                .queryRateLimit(queriesPerSecond)
+                .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .maxRetries(maxRetries)
+                .build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor geocodingExecutor(@Value("${local.geolocation.deferred.pool-size:4}") int poolSize,
+            @Value("${local.geolocation.deferred.queue-capacity:1000}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("geocoding-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor geocodingCallExecutor(
+            @Value("${local.geolocation.resilience.pool-size:40}") int poolSize,
+            @Value("${local.geolocation.resilience.queue-capacity:100}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("geocoding-call-");
+        return executor;
+    }
+
+    /**
+     * Geocodes the customers of a batch create in parallel, apart from the provider call pool so one large batch
+     * cannot take all of it. When the queue is full the request thread geocodes itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchGeocodingExecutor(
+            @Value("${local.customers.batch.geocoding-parallelism:8}") int poolSize,
+            @Value("${local.customers.batch.queue-capacity:1000}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("batch-geocoding-");
+        return executor;
+    }
+
+    /**
+     * Fires hedged attempts and deferred retries. Kept apart from the {@code @Scheduled} jobs, which can hold their
+     * threads for minutes while refreshing geocodes or rebuilding the spatial index.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler geocodingScheduler(
+            @Value("${local.geolocation.scheduler.pool-size:2}") int poolSize) {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("geocoding-scheduler-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Declaring {@link #geocodingScheduler} makes Spring Boot skip its own scheduler, so the one the
+     * {@code @Scheduled} jobs run on is declared here from the {@code spring.task.scheduling} properties.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
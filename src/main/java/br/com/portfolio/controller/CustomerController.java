@@ -1,21 +1,49 @@
 package br.com.portfolio.controller;
 
 import br.com.portfolio.api.CustomerApi;
+import br.com.portfolio.domain.payload.CreateCustomerBatchPayload;
 import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.payload.DistanceMatrixPayload;
+import br.com.portfolio.domain.payload.GeoBatchPayload;
+import br.com.portfolio.domain.payload.GeoPolygonPayload;
+import br.com.portfolio.domain.payload.PatchCustomerPayload;
 import br.com.portfolio.domain.payload.UpdateCustomerPayload;
+import br.com.portfolio.domain.response.CursorPageResponse;
+import br.com.portfolio.domain.response.CustomerBatchResponse;
+import br.com.portfolio.domain.response.CustomerChangesResponse;
+import br.com.portfolio.domain.response.CustomerCompactDistanceResponse;
 import br.com.portfolio.domain.response.CustomerDistanceResponse;
 import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.response.DistanceMatrixResponse;
+import br.com.portfolio.domain.response.GeoGridCellResponse;
+import br.com.portfolio.domain.search.CountMode;
 import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import br.com.portfolio.domain.search.KeysetCursor;
+import br.com.portfolio.service.CustomerBatchService;
+import br.com.portfolio.service.CustomerChangesService;
+import br.com.portfolio.service.CustomerExportService;
 import br.com.portfolio.service.CustomerService;
+import br.com.portfolio.service.DistanceMatrixService;
+import br.com.portfolio.service.GeoGridService;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -32,6 +60,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class CustomerController implements CustomerApi {
 
     private final CustomerService service;
+    private final GeoGridService geoGridService;
+    private final DistanceMatrixService distanceMatrixService;
+    private final CustomerExportService exportService;
+    private final CustomerChangesService changesService;
+    private final CustomerBatchService batchService;
 
     @Override
     @PostMapping
@@ -40,6 +73,13 @@ public class CustomerController implements CustomerApi {
         return service.create(payload);
     }
 
+    @Override
+    @PostMapping("/batch")
+    @ResponseStatus(code = HttpStatus.OK)
+    public CustomerBatchResponse createBatch(@RequestBody CreateCustomerBatchPayload payload) {
+        return batchService.create(payload);
+    }
+
     @Override
     @PutMapping("/{id}")
     @ResponseStatus(code = HttpStatus.ACCEPTED)
@@ -47,6 +87,13 @@ public class CustomerController implements CustomerApi {
         return service.update(id, payload);
     }
 
+    @Override
+    @PatchMapping("/{id}")
+    @ResponseStatus(code = HttpStatus.ACCEPTED)
+    public CustomerResponse patch(@PathVariable ObjectId id, @RequestBody PatchCustomerPayload payload) {
+        return service.patch(id, payload);
+    }
+
     @Override
     @GetMapping("/{id}")
     @ResponseStatus(code = HttpStatus.OK)
@@ -64,14 +111,125 @@ public class CustomerController implements CustomerApi {
     @Override
     @ResponseStatus(code = HttpStatus.OK)
     @GetMapping
-    public Page<CustomerResponse> findAll(Pageable pageable, CustomerSearchParams search) {
-        return service.findAll(pageable, search);
+    public Page<CustomerResponse> findAll(Pageable pageable, CustomerSearchParams search,
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
+        return service.findAll(pageable, search, count);
+    }
+
+    @Override
+    @ResponseStatus(code = HttpStatus.OK)
+    @GetMapping(params = "paging=slice")
+    public Slice<CustomerResponse> findSlice(@RequestParam String paging, Pageable pageable,
+            CustomerSearchParams search) {
+        return service.findSlice(pageable, search);
+    }
+
+    @Override
+    @ResponseStatus(code = HttpStatus.OK)
+    @GetMapping(params = "paging=cursor")
+    public List<CustomerResponse> findAllByCursor(@RequestParam String paging,
+            @RequestParam(defaultValue = KeysetCursor.ID) String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "100") Integer limit, @RequestParam(required = false) String cursor,
+            CustomerSearchParams search, HttpServletResponse response) {
+        return page(service.findAll(search, sortBy, direction, limit, cursor), response);
+    }
+
+    @Override
+    @ResponseStatus(code = HttpStatus.OK)
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public void export(@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime modifiedSince,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_VALUE);
+        exportService.export(modifiedSince, response.getOutputStream());
+    }
+
+    @Override
+    @ResponseStatus(code = HttpStatus.OK)
+    @GetMapping("/changes")
+    public CustomerChangesResponse findChanges(@RequestParam(required = false) String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "500") Integer limit) {
+        return changesService.findChanges(token, since, limit);
     }
 
     @Override
     @GetMapping("/geo/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public List<CustomerDistanceResponse> findByLocationNear(@RequestParam Integer maxDistanceInKm, @PathVariable ObjectId id) {
-        return service.findByLocationNear(maxDistanceInKm, id);
+    public List<CustomerDistanceResponse> findByLocationNear(@RequestParam Integer maxDistanceInKm, @PathVariable ObjectId id,
+            @RequestParam(defaultValue = "100") Integer limit, @RequestParam(required = false) String cursor,
+            GeoSearchParams filters, HttpServletResponse response) {
+        return page(service.findByLocationNear(maxDistanceInKm, id, limit, cursor, filters), response);
+    }
+
+    @Override
+    @GetMapping(value = "/geo/{id}", params = "view=compact")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<CustomerCompactDistanceResponse> findCompactByLocationNear(@RequestParam Integer maxDistanceInKm,
+            @PathVariable ObjectId id, @RequestParam(defaultValue = "100") Integer limit,
+            @RequestParam(required = false) String cursor, GeoSearchParams filters, HttpServletResponse response) {
+        return page(service.findCompactByLocationNear(maxDistanceInKm, id, limit, cursor, filters), response);
+    }
+
+    @Override
+    @GetMapping("/geo/{id}/nearest")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<CustomerDistanceResponse> findNearest(@PathVariable ObjectId id, @RequestParam(defaultValue = "10") Integer k) {
+        return service.findNearest(id, k);
+    }
+
+    @Override
+    @GetMapping("/geo/nearest")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<CustomerDistanceResponse> findNearest(@RequestParam Double lat, @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") Integer k) {
+        return service.findNearest(lat, lng, k);
+    }
+
+    @Override
+    @PostMapping("/geo/batch")
+    @ResponseStatus(code = HttpStatus.OK)
+    public Map<String, List<CustomerDistanceResponse>> findByLocationNear(@RequestBody GeoBatchPayload payload) {
+        return service.findByLocationNear(payload);
+    }
+
+    @Override
+    @PostMapping("/geo/within")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<CustomerResponse> findWithin(@RequestBody GeoPolygonPayload payload,
+            @RequestParam(defaultValue = "100") Integer limit, @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        return page(service.findWithin(payload, limit, cursor), response);
+    }
+
+    @Override
+    @GetMapping("/geo/box")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<CustomerResponse> findWithinBox(@RequestParam Double minLat, @RequestParam Double minLng,
+            @RequestParam Double maxLat, @RequestParam Double maxLng, @RequestParam(defaultValue = "100") Integer limit,
+            @RequestParam(required = false) String cursor, HttpServletResponse response) {
+        return page(service.findWithinBox(minLat, minLng, maxLat, maxLng, limit, cursor), response);
+    }
+
+    @Override
+    @GetMapping("/geo/grid")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<GeoGridCellResponse> aggregateGrid(@RequestParam Double minLat, @RequestParam Double minLng,
+            @RequestParam Double maxLat, @RequestParam Double maxLng, @RequestParam Integer precision) {
+        return geoGridService.aggregate(minLat, minLng, maxLat, maxLng, precision);
+    }
+
+    @Override
+    @PostMapping("/geo/matrix")
+    @ResponseStatus(code = HttpStatus.OK)
+    public DistanceMatrixResponse computeDistanceMatrix(@RequestBody DistanceMatrixPayload payload) {
+        return distanceMatrixService.compute(payload);
+    }
+
+    private static <T> List<T> page(CursorPageResponse<T> page, HttpServletResponse response) {
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
     }
 }
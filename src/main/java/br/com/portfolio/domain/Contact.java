@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 
 @Data
 @NoArgsConstructor
@@ -12,8 +14,38 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Contact {
 
+    /**
+     * Placeholder kept while geocoding is deferred: the 2dsphere index rejects a contact without a valid point.
+     */
+    public static final List<Double> PENDING_COORDINATES = List.of(0.0, 0.0);
+
     private String address;
     private List<Double> coordinates;
     @Builder.Default
     private String type = "Point";
-}
\ No newline at end of file
+    private GeocodingStatus status;
+
+    public static Contact pending(String address) {
+        return Contact.builder().address(address).coordinates(PENDING_COORDINATES).status(GeocodingStatus.PENDING).build();
+    }
+
+    /**
+     * Point for 2dsphere queries. Coordinates are stored latitude first, so query points use the same order to match
+     * them.
+     */
+    public static Point point(double latitude, double longitude) {
+        return new Point(latitude, longitude);
+    }
+
+    /**
+     * Rectangle for 2dsphere queries, in the same coordinate order as {@link #point}. Edges are geodesics.
+     */
+    public static GeoJsonPolygon box(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        return new GeoJsonPolygon(point(minLatitude, minLongitude), point(minLatitude, maxLongitude),
+                point(maxLatitude, maxLongitude), point(maxLatitude, minLongitude), point(minLatitude, minLongitude));
+    }
+
+    public static Contact resolved(String address, List<Double> coordinates) {
+        return Contact.builder().address(address).coordinates(coordinates).status(GeocodingStatus.RESOLVED).build();
+    }
+}
@@ -10,8 +10,7 @@ import org.bson.types.ObjectId;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -19,8 +18,25 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @Builder
 @Document(collection = "customers")
+@CompoundIndex(name = "contact_status_lastModifiedDate", def = "{'contact.status': 1, 'lastModifiedDate': 1}")
+@CompoundIndex(name = "lastModifiedDate_id", def = "{'lastModifiedDate': 1, '_id': 1}")
+@CompoundIndex(name = Customer.DOCUMENT_NUMBER_INDEX, def = "{'documentNumber': 1, 'deletedDate': 1}", unique = true)
+@CompoundIndex(name = Customer.GEO_INDEX,
+        def = "{'contact': '2dsphere', 'contact.status': 1, 'gender': 1, 'birthDate': 1}")
 public class Customer {
 
+    /**
+     * The only 2dsphere index, so {@code $geoNear} needs no key. Its trailing keys serve the attribute filters of the
+     * geo search.
+     */
+    public static final String GEO_INDEX = "contact_geo_status_gender_birthDate";
+
+    /**
+     * Unique among live customers only: a tombstone keeps the document number along with its deletion date, so the
+     * number can be registered again.
+     */
+    public static final String DOCUMENT_NUMBER_INDEX = "documentNumber_deletedDate";
+
     @Id
     private ObjectId id;
     private String name;
@@ -29,7 +45,6 @@ public class Customer {
     private String nickname;
     private String email;
     private String documentNumber;
-    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private Contact contact;
 
     @CreatedDate
@@ -0,0 +1,30 @@
+package br.com.portfolio.domain;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A deleted customer, read from the customers collection where deleting left only its id, document number and deletion
+ * date. Kept for {@link #RETENTION}; a consumer whose token is older has missed deletions and must sync from scratch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "customers")
+@CompoundIndex(name = "deletedDate_id", def = "{'deletedDate': 1, '_id': 1}")
+public class CustomerTombstone {
+
+    public static final String RETENTION = "P30D";
+
+    @Id
+    private ObjectId id;
+    @Indexed(expireAfter = RETENTION)
+    private LocalDateTime deletedDate;
+}
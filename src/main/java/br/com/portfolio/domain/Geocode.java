@@ -0,0 +1,33 @@
+package br.com.portfolio.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "geocodes")
+public class Geocode {
+
+    @Id
+    private ObjectId id;
+    @Indexed(unique = true)
+    private String addressHash;
+    private String address;
+    private List<Double> coordinates;
+    private String provider;
+    @Indexed
+    private long hits;
+    @Indexed
+    private LocalDateTime resolvedDate;
+    private LocalDateTime refreshClaimedDate;
+}
@@ -0,0 +1,5 @@
+package br.com.portfolio.domain;
+
+public enum GeocodingStatus {
+    PENDING, RESOLVED, FAILED
+}
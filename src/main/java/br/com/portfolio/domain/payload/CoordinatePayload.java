@@ -0,0 +1,29 @@
+package br.com.portfolio.domain.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinatePayload {
+
+    @ApiModelProperty(value = "Latitude in degrees.", required = true, example = "-23.5614")
+    @NotNull(message = "{Coordinate.lat.notNull}")
+    @DecimalMin(value = "-90", message = "{Coordinate.lat.range}")
+    @DecimalMax(value = "90", message = "{Coordinate.lat.range}")
+    private Double lat;
+
+    @ApiModelProperty(value = "Longitude in degrees.", required = true, example = "-46.6559")
+    @NotNull(message = "{Coordinate.lng.notNull}")
+    @DecimalMin(value = "-180", message = "{Coordinate.lng.range}")
+    @DecimalMax(value = "180", message = "{Coordinate.lng.range}")
+    private Double lng;
+}
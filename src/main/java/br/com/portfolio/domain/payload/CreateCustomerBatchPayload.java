@@ -0,0 +1,27 @@
+package br.com.portfolio.domain.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The customers themselves are validated one by one, so an invalid customer is reported in its own result instead of
+ * rejecting the whole batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateCustomerBatchPayload {
+
+    @ApiModelProperty(value = "Customers to create.", required = true)
+    @NotEmpty(message = "{CustomerBatch.customers.notEmpty}")
+    @Size(max = 1000, message = "{CustomerBatch.customers.size}")
+    private List<@NotNull(message = "{CustomerBatch.customers.notNull}") CreateCustomerPayload> customers;
+}
@@ -0,0 +1,29 @@
+package br.com.portfolio.domain.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceMatrixPayload {
+
+    @ApiModelProperty(value = "Hexadecimal ids of the customers.", required = true)
+    @NotEmpty(message = "{DistanceMatrix.ids.notEmpty}")
+    @Size(max = 5000, message = "{DistanceMatrix.ids.size}")
+    private List<@Pattern(regexp = "^[0-9a-fA-F]{24}$", message = "{DistanceMatrix.ids.isInvalid}") String> ids;
+
+    @ApiModelProperty(value = "When set, only pairs at most this many kilometers apart are returned instead of the "
+            + "full matrix.")
+    @Positive(message = "{DistanceMatrix.maxDistanceInKm.positive}")
+    private Double maxDistanceInKm;
+}
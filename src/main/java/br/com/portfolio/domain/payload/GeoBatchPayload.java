@@ -0,0 +1,38 @@
+package br.com.portfolio.domain.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoBatchPayload {
+
+    @ApiModelProperty(value = "Hexadecimal ids of the origin customers.", required = true)
+    @NotEmpty(message = "{GeoBatch.ids.notEmpty}")
+    @Size(max = 500, message = "{GeoBatch.ids.size}")
+    private List<@Pattern(regexp = "^[0-9a-fA-F]{24}$", message = "{GeoBatch.ids.isInvalid}") String> ids;
+
+    @ApiModelProperty(value = "Search radius around each origin, in kilometers.", required = true)
+    @NotNull(message = "{GeoBatch.maxDistanceInKm.notNull}")
+    @Positive(message = "{GeoBatch.maxDistanceInKm.positive}")
+    private Integer maxDistanceInKm;
+
+    @ApiModelProperty(value = "Maximum customers per origin, nearest first.", example = "100")
+    @Min(value = 1, message = "{GeoBatch.limit.range}")
+    @Max(value = 1000, message = "{GeoBatch.limit.range}")
+    @Builder.Default
+    private Integer limit = 100;
+}
@@ -0,0 +1,24 @@
+package br.com.portfolio.domain.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPolygonPayload {
+
+    @ApiModelProperty(value = "Polygon vertices in order. The ring is closed automatically when the last vertex differs "
+            + "from the first.", required = true)
+    @NotNull(message = "{GeoPolygon.vertices.size}")
+    @Size(min = 3, max = 1000, message = "{GeoPolygon.vertices.size}")
+    private List<@Valid @NotNull(message = "{GeoPolygon.vertices.size}") CoordinatePayload> vertices;
+}
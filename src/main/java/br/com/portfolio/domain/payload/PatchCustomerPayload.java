@@ -0,0 +1,33 @@
+package br.com.portfolio.domain.payload;
+
+import br.com.portfolio.domain.GenderEnum;
+import io.swagger.annotations.ApiModelProperty;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class PatchCustomerPayload {
+
+    @ApiModelProperty(value = "Customer's name. Left unchanged when absent.")
+    @Size(max = 120, message = "{Customer.name.size}")
+    @Pattern(regexp = ".*\\S.*", message = "{Customer.name.notBlank}")
+    private String name;
+
+    @ApiModelProperty(value = "Customer's gender. Left unchanged when absent.", example = "MALE/FEMALE")
+    private GenderEnum gender;
+
+    @ApiModelProperty(value = "Customer's nickname. Left unchanged when absent.")
+    @Size(max = 120, message = "{Customer.nickname.size}")
+    private String nickname;
+
+    @ApiModelProperty(value = "Customer's associated e-mail address. Left unchanged when absent.")
+    @Size(max = 80, message = "{Customer.email.size}")
+    @Email(message = "{Customer.email.isInvalid}")
+    @Pattern(regexp = ".*\\S.*", message = "{Customer.email.notBlank}")
+    private String email;
+
+    @ApiModelProperty(value = "Customer's address. Re-geocoded only when it actually changes.")
+    private String address;
+}
@@ -0,0 +1,13 @@
+package br.com.portfolio.domain.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+}
@@ -0,0 +1,40 @@
+package br.com.portfolio.domain.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CustomerBatchItemResponse {
+
+    @ApiModelProperty("Position of the customer in the request")
+    private final int index;
+
+    @ApiModelProperty("Status the single create would have answered: 201, 400, 404, 409, 500 or 503")
+    private final int status;
+
+    @ApiModelProperty("The created customer. Absent when it was not created")
+    private final CustomerResponse customer;
+
+    @ApiModelProperty("Why the customer was not created")
+    private final List<ErrorResponse> errors;
+
+    public static CustomerBatchItemResponse created(int index, CustomerResponse customer) {
+        return new CustomerBatchItemResponse(index, HttpStatus.CREATED.value(), customer, List.of());
+    }
+
+    public static CustomerBatchItemResponse failed(int index, HttpStatus status, List<ErrorResponse> errors) {
+        return new CustomerBatchItemResponse(index, status.value(), null, errors);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return status == HttpStatus.CREATED.value();
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.portfolio.domain.response;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class CustomerBatchResponse {
+
+    @ApiModelProperty("Customers created")
+    private final int created;
+
+    @ApiModelProperty("Customers not created")
+    private final int failed;
+
+    @ApiModelProperty("One result per requested customer, in request order")
+    private final List<CustomerBatchItemResponse> items;
+
+    public CustomerBatchResponse(List<CustomerBatchItemResponse> items) {
+        this.created = (int) items.stream().filter(CustomerBatchItemResponse::isCreated).count();
+        this.failed = items.size() - created;
+        this.items = items;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.portfolio.domain.response;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CustomerChangesResponse {
+
+    @ApiModelProperty("Customers created or modified since the token, oldest change first")
+    private final List<CustomerExportResponse> modified;
+
+    @ApiModelProperty("Customers deleted since the token, oldest deletion first")
+    private final List<CustomerTombstoneResponse> deleted;
+
+    @ApiModelProperty("Token for the next call, also when there were no changes")
+    private final String token;
+
+    @ApiModelProperty("Whether more changes are ready; when false, poll again later with the token")
+    private final boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package br.com.portfolio.domain.response;
+
+import br.com.portfolio.domain.Customer;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+
+@Getter
+public class CustomerCompactDistanceResponse {
+
+    @ApiModelProperty("Customer autogenerated id")
+    private final String id;
+
+    @ApiModelProperty("Customer's name")
+    private final String name;
+
+    @ApiModelProperty("Distance from the origin, in kilometers")
+    private final String distance;
+
+    public CustomerCompactDistanceResponse(Customer customer, double distance) {
+        this.id = customer.getId().toHexString();
+        this.name = customer.getName();
+        this.distance = CustomerDistanceResponse.formatDistance(distance);
+    }
+}
@@ -14,7 +14,7 @@ public class CustomerDistanceResponse extends CustomerResponse {
         this.distance = formatDistance(distance);
     }
 
-    private String formatDistance(double distance) {
+    static String formatDistance(double distance) {
         DecimalFormat df = new DecimalFormat("#.###");
         return df.format(distance).replace(",", ".");
     }
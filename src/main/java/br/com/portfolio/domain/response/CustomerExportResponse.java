@@ -0,0 +1,20 @@
+package br.com.portfolio.domain.response;
+
+import br.com.portfolio.domain.Customer;
+import io.swagger.annotations.ApiModelProperty;
+import java.time.LocalDateTime;
+
+public class CustomerExportResponse extends CustomerResponse {
+
+    private final LocalDateTime lastModifiedDate;
+
+    public CustomerExportResponse(Customer customer) {
+        super(customer);
+        this.lastModifiedDate = customer.getLastModifiedDate();
+    }
+
+    @ApiModelProperty("Last change to the customer, to resume a sync from")
+    public LocalDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+}
@@ -2,6 +2,7 @@ package br.com.portfolio.domain.response;
 
 import br.com.portfolio.domain.Customer;
 import br.com.portfolio.domain.GenderEnum;
+import br.com.portfolio.domain.GeocodingStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.annotations.ApiModelProperty;
 import java.time.LocalDate;
@@ -43,6 +44,12 @@ public class CustomerResponse {
         return customer.getContact().getAddress();
     }
 
+    @ApiModelProperty("Customer's address geocoding status")
+    public GeocodingStatus getGeocodingStatus() {
+        var status = customer.getContact().getStatus();
+        return status == null ? GeocodingStatus.RESOLVED : status;
+    }
+
     @ApiModelProperty("Customer's birthDate")
     public LocalDate getBirthDate() {
         return customer.getBirthDate();
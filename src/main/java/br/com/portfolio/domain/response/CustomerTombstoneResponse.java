@@ -0,0 +1,21 @@
+package br.com.portfolio.domain.response;
+
+import br.com.portfolio.domain.CustomerTombstone;
+import io.swagger.annotations.ApiModelProperty;
+import java.time.LocalDateTime;
+import lombok.Getter;
+
+@Getter
+public class CustomerTombstoneResponse {
+
+    @ApiModelProperty("Id of the deleted customer")
+    private final String id;
+
+    @ApiModelProperty("When the customer was deleted")
+    private final LocalDateTime deletedDate;
+
+    public CustomerTombstoneResponse(CustomerTombstone tombstone) {
+        this.id = tombstone.getId().toHexString();
+        this.deletedDate = tombstone.getDeletedDate();
+    }
+}
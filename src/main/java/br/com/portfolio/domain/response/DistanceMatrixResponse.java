@@ -0,0 +1,23 @@
+package br.com.portfolio.domain.response;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DistanceMatrixResponse {
+
+    @ApiModelProperty("Geocoded customers, in request order. Rows, columns and pair indexes refer to this list")
+    private final List<String> ids;
+
+    @ApiModelProperty("Distances in kilometers, one row per customer. Absent when maxDistanceInKm was given")
+    private final double[][] distances;
+
+    @ApiModelProperty("Pairs at most maxDistanceInKm apart, each listed once. Absent when maxDistanceInKm was not given")
+    private final List<DistancePairResponse> pairs;
+
+    @ApiModelProperty("Requested ids that are unknown or not geocoded")
+    private final List<String> missing;
+}
@@ -0,0 +1,19 @@
+package br.com.portfolio.domain.response;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DistancePairResponse {
+
+    @ApiModelProperty("Index of the first customer in ids")
+    private final int from;
+
+    @ApiModelProperty("Index of the second customer in ids, always greater than from")
+    private final int to;
+
+    @ApiModelProperty("Distance in kilometers")
+    private final double distance;
+}
@@ -0,0 +1,40 @@
+package br.com.portfolio.domain.response;
+
+import br.com.portfolio.domain.search.GeoGridCell;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+
+@Getter
+public class GeoGridCellResponse {
+
+    @ApiModelProperty("Southern edge of the cell")
+    private final double minLat;
+
+    @ApiModelProperty("Western edge of the cell")
+    private final double minLng;
+
+    @ApiModelProperty("Northern edge of the cell")
+    private final double maxLat;
+
+    @ApiModelProperty("Eastern edge of the cell")
+    private final double maxLng;
+
+    @ApiModelProperty("Customers in the cell")
+    private final long count;
+
+    @ApiModelProperty("Mean latitude of the customers in the cell")
+    private final double centroidLat;
+
+    @ApiModelProperty("Mean longitude of the customers in the cell")
+    private final double centroidLng;
+
+    public GeoGridCellResponse(GeoGridCell cell, double cellSize) {
+        this.minLat = cell.getRow() * cellSize;
+        this.minLng = cell.getColumn() * cellSize;
+        this.maxLat = (cell.getRow() + 1) * cellSize;
+        this.maxLng = (cell.getColumn() + 1) * cellSize;
+        this.count = cell.getCount();
+        this.centroidLat = cell.getLatitude();
+        this.centroidLng = cell.getLongitude();
+    }
+}
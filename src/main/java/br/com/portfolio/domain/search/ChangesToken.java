@@ -0,0 +1,47 @@
+package br.com.portfolio.domain.search;
+
+import br.com.portfolio.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.Value;
+import org.bson.types.ObjectId;
+
+@Value
+public class ChangesToken {
+
+    LocalDateTime modifiedDate;
+    ObjectId modifiedId;
+    LocalDateTime deletedDate;
+    ObjectId deletedId;
+
+    public String encode() {
+        var value = String.join("|", format(modifiedDate), format(modifiedId), format(deletedDate), format(deletedId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangesToken decode(String token) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4) {
+                throw new InvalidCursorException();
+            }
+            return new ChangesToken(date(parts[0]), id(parts[1]), date(parts[2]), id(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static String format(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static LocalDateTime date(String value) {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    private static ObjectId id(String value) {
+        return value.isEmpty() ? null : new ObjectId(value);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.portfolio.domain.search;
+
+public enum CountMode {
+
+    /**
+     * Counts the matching customers on every request.
+     */
+    EXACT,
+
+    /**
+     * Reads the collection size from its metadata when there are no filters; filtered listings use {@link #CACHED}.
+     */
+    ESTIMATED,
+
+    /**
+     * Reuses a count of the same filters taken within the last few seconds.
+     */
+    CACHED
+}
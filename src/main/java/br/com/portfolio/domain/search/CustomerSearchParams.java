@@ -17,4 +17,8 @@ public class CustomerSearchParams {
 
     @ApiModelProperty("Search by customer's document Number")
     private String documentNumber;
+
+    public boolean hasFilters() {
+        return name != null || documentNumber != null;
+    }
 }
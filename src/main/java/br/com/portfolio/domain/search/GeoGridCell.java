@@ -0,0 +1,17 @@
+package br.com.portfolio.domain.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoGridCell {
+
+    private long row;
+    private long column;
+    private long count;
+    private double latitude;
+    private double longitude;
+}
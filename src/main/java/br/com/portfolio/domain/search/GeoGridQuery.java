@@ -0,0 +1,67 @@
+package br.com.portfolio.domain.search;
+
+import lombok.Value;
+
+/**
+ * Block of whole grid cells covering a bounding box. At precision {@code p} a cell spans {@code 360 / 2^p} degrees on
+ * both axes; row {@code r} covers latitudes {@code [r * size, (r + 1) * size)} and column {@code c} the same range of
+ * longitudes, except that latitude 90 and longitude 180 fall in the last row and column. Boxes are snapped outwards to
+ * whole cells, so border cells hold complete counts and nearby viewports at the same precision share a cache entry.
+ */
+@Value
+public class GeoGridQuery {
+
+    int precision;
+    long minRow;
+    long minColumn;
+    long maxRow;
+    long maxColumn;
+
+    public static GeoGridQuery covering(int precision, double minLat, double minLng, double maxLat, double maxLng) {
+        var size = cellSize(precision);
+        return new GeoGridQuery(precision, index(minLat, size, 90), index(minLng, size, 180), index(maxLat, size, 90),
+                index(maxLng, size, 180));
+    }
+
+    public static long index(double position, double size, double edge) {
+        return Math.min((long) Math.floor(position / size), lastIndex(size, edge));
+    }
+
+    public static long lastIndex(double size, double edge) {
+        return (long) Math.ceil(edge / size) - 1;
+    }
+
+    public static double cellSize(int precision) {
+        return 360.0 / (1L << precision);
+    }
+
+    public double getCellSize() {
+        return cellSize(precision);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        var row = index(latitude, getCellSize(), 90);
+        var column = index(longitude, getCellSize(), 180);
+        return row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn;
+    }
+
+    public long getCellCount() {
+        return (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+    }
+
+    public double getMinLat() {
+        return Math.max(-90, minRow * getCellSize());
+    }
+
+    public double getMinLng() {
+        return Math.max(-180, minColumn * getCellSize());
+    }
+
+    public double getMaxLat() {
+        return Math.min(90, (maxRow + 1) * getCellSize());
+    }
+
+    public double getMaxLng() {
+        return Math.min(180, (maxColumn + 1) * getCellSize());
+    }
+}
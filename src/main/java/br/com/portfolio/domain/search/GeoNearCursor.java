@@ -0,0 +1,42 @@
+package br.com.portfolio.domain.search;
+
+import br.com.portfolio.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import org.bson.types.ObjectId;
+
+/**
+ * Position after the last customer of a geo-near page: its distance in kilometers and its id. Pages are ordered by
+ * distance and then id, so customers at the same distance continue after that id, however many of them there are.
+ * Opaque to clients.
+ */
+@Value
+public class GeoNearCursor {
+
+    double distance;
+    ObjectId id;
+
+    public boolean precedes(double distance, ObjectId id) {
+        return distance > this.distance || distance == this.distance && id.compareTo(this.id) > 0;
+    }
+
+    public String encode() {
+        var value = distance + "|" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static GeoNearCursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.indexOf('|');
+            var distance = Double.parseDouble(value.substring(0, separator));
+            if (distance < 0 || Double.isNaN(distance)) {
+                throw new InvalidCursorException();
+            }
+            return new GeoNearCursor(distance, new ObjectId(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.portfolio.domain.search;
+
+import br.com.portfolio.domain.GenderEnum;
+import io.swagger.annotations.ApiModelProperty;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GeoSearchParams {
+
+    @ApiModelProperty("Search by customer's name")
+    private String name;
+
+    @ApiModelProperty("Search by customer's document Number")
+    private String documentNumber;
+
+    @ApiModelProperty("Search by customer's gender")
+    private GenderEnum gender;
+
+    @ApiModelProperty("Minimum age, in full years")
+    @Min(value = 0, message = "{GeoSearch.age.range}")
+    @Max(value = 150, message = "{GeoSearch.age.range}")
+    private Integer minAge;
+
+    @ApiModelProperty("Maximum age, in full years")
+    @Min(value = 0, message = "{GeoSearch.age.range}")
+    @Max(value = 150, message = "{GeoSearch.age.range}")
+    private Integer maxAge;
+
+    public boolean hasFilters() {
+        return name != null || documentNumber != null || gender != null || minAge != null || maxAge != null;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.portfolio.domain.search;
+
+import br.com.portfolio.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import org.bson.types.ObjectId;
+
+@Value
+public class IdCursor {
+
+    ObjectId id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toHexString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static IdCursor decode(String cursor) {
+        try {
+            return new IdCursor(new ObjectId(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.portfolio.domain.search;
+
+import br.com.portfolio.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+
+@Value
+public class KeysetCursor {
+
+    public static final String ID = "id";
+
+    String sortBy;
+    Sort.Direction direction;
+    String value;
+
+    public Object getKey() {
+        return ID.equals(sortBy) ? new ObjectId(value) : value;
+    }
+
+    public String encode() {
+        var encoded = sortBy + "|" + direction + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor, String sortBy, Sort.Direction direction) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(sortBy) || !parts[1].equals(direction.name())
+                    || ID.equals(sortBy) && !ObjectId.isValid(parts[2])) {
+                throw new InvalidCursorException();
+            }
+            return new KeysetCursor(sortBy, direction, parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package br.com.portfolio.events;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 import br.com.portfolio.domain.Customer;
 import br.com.portfolio.domain.CustomerElastic;
+import br.com.portfolio.domain.GeocodingStatus;
 import br.com.portfolio.repository.CustomerElasticRepository;
+import br.com.portfolio.service.CustomerSpatialIndex;
+import br.com.portfolio.service.DocumentNumberService;
+import br.com.portfolio.service.GeoGridService;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.stereotype.Component;
 
@@ -17,19 +32,75 @@ import org.springframework.stereotype.Component;
 public class CustomerDomainListener extends AbstractMongoEventListener<Customer> {
 
     private final CustomerElasticRepository repository;
+    private final DocumentNumberService documentNumberService;
+    private final CustomerSpatialIndex spatialIndex;
+    private final GeoGridService geoGridService;
 
     @Override
     public void onAfterSave(AfterSaveEvent<Customer> event) {
+        documentNumberService.register(event.getSource().getDocumentNumber());
+        var moved = moved(event.getSource());
+        spatialIndex.onSave(event.getSource());
+        geoGridService.invalidate(moved);
         log.info("Saving item on elastic");
         repository.save(buildCustomerElastic(event.getSource()));
     }
 
+    @EventListener
+    public void onCustomersInserted(CustomersInsertedEvent event) {
+        var moved = new HashSet<Point>();
+        event.getCustomers().forEach(customer -> {
+            documentNumberService.register(customer.getDocumentNumber());
+            position(customer).ifPresent(moved::add);
+            spatialIndex.onSave(customer);
+        });
+        geoGridService.invalidate(moved);
+        log.info("Saving items on elastic: {}", kv("count", event.getCustomers().size()));
+        repository.saveAll(event.getCustomers().stream().map(this::buildCustomerElastic).collect(Collectors.toList()));
+    }
+
+    /**
+     * Deletes by id carry the removal query as source.
+     */
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Customer> event) {
+        var id = event.getSource().get("_id");
+        if (id instanceof ObjectId) {
+            var previous = spatialIndex.find((ObjectId) id);
+            spatialIndex.onDelete((ObjectId) id);
+            previous.ifPresent(point -> geoGridService.invalidate(List.of(point)));
+        }
+    }
+
+    /**
+     * The previous position is known only from the spatial index. A customer that kept its position moves no count,
+     * and when the previous position is unknown only the new one is evicted.
+     */
+    private List<Point> moved(Customer customer) {
+        var previous = spatialIndex.find(customer.getId());
+        var current = position(customer);
+        if (previous.equals(current)) {
+            return List.of();
+        }
+        return Stream.of(previous, current).flatMap(Optional::stream).collect(Collectors.toList());
+    }
+
+    private static Optional<Point> position(Customer customer) {
+        var contact = customer.getContact();
+        if (contact == null || contact.getCoordinates() == null || contact.getCoordinates().size() < 2
+                || contact.getStatus() == GeocodingStatus.PENDING || contact.getStatus() == GeocodingStatus.FAILED) {
+            return Optional.empty();
+        }
+        return Optional.of(new Point(contact.getCoordinates().get(0), contact.getCoordinates().get(1)));
+    }
+
     private CustomerElastic buildCustomerElastic(Customer customer) {
         return CustomerElastic.builder()
                 .id(customer.getId().toHexString())
                 .name(customer.getName())
                 .gender(customer.getGender())
-                .birthDate(customer.getBirthDate().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .birthDate(customer.getBirthDate() == null ? null
+                        : customer.getBirthDate().format(DateTimeFormatter.ISO_LOCAL_DATE))
                 .nickname(customer.getNickname())
                 .email(customer.getEmail())
                 .documentNumber(customer.getDocumentNumber())
@@ -0,0 +1,14 @@
+package br.com.portfolio.events;
+
+import br.com.portfolio.domain.Customer;
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Published after a bulk insert, which raises no mapping events, with the customers that were stored.
+ */
+@Value
+public class CustomersInsertedEvent {
+
+    List<Customer> customers;
+}
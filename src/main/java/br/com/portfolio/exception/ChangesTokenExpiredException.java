@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class ChangesTokenExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = -2290647411370785203L;
+
+}
@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class CustomerNotGeocodedException extends RuntimeException {
+
+    private static final long serialVersionUID = -3184270651309745217L;
+
+}
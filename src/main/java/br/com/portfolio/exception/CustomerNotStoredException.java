@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class CustomerNotStoredException extends RuntimeException {
+
+    private static final long serialVersionUID = 4821956037461298117L;
+
+}
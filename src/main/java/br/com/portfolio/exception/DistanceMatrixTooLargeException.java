@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class DistanceMatrixTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 7731482213675204419L;
+
+}
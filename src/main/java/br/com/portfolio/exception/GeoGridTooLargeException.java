@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class GeoGridTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = -2150497262807367338L;
+
+}
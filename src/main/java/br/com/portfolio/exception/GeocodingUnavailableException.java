@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class GeocodingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 3305621874140327931L;
+
+}
@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = -4472716093865190417L;
+
+}
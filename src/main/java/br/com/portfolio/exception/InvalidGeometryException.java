@@ -0,0 +1,7 @@
+package br.com.portfolio.exception;
+
+public class InvalidGeometryException extends RuntimeException {
+
+    private static final long serialVersionUID = 3318216707315548302L;
+
+}
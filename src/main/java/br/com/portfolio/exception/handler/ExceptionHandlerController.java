@@ -4,8 +4,16 @@ import static java.util.stream.Collectors.toList;
 
 import br.com.portfolio.domain.response.ErrorResponse;
 import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.exception.ChangesTokenExpiredException;
 import br.com.portfolio.exception.CustomerAlreadyExistsException;
 import br.com.portfolio.exception.CustomerNotFoundException;
+import br.com.portfolio.exception.CustomerNotGeocodedException;
+import br.com.portfolio.exception.CustomerNotStoredException;
+import br.com.portfolio.exception.DistanceMatrixTooLargeException;
+import br.com.portfolio.exception.GeoGridTooLargeException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.exception.InvalidCursorException;
+import br.com.portfolio.exception.InvalidGeometryException;
 import java.util.Collection;
 import javax.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -63,6 +71,54 @@ public class ExceptionHandlerController {
         return exceptionMessage(exception);
     }
 
+    @ExceptionHandler(CustomerNotGeocodedException.class)
+    @ResponseStatus(code = HttpStatus.CONFLICT)
+    public ErrorResponse handleCustomerNotGeocodedException(CustomerNotGeocodedException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(CustomerNotStoredException.class)
+    @ResponseStatus(code = HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleCustomerNotStoredException(CustomerNotStoredException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(GeocodingUnavailableException.class)
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleGeocodingUnavailableException(GeocodingUnavailableException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursorException(InvalidCursorException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(InvalidGeometryException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidGeometryException(InvalidGeometryException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(GeoGridTooLargeException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleGeoGridTooLargeException(GeoGridTooLargeException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(DistanceMatrixTooLargeException.class)
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleDistanceMatrixTooLargeException(DistanceMatrixTooLargeException exception) {
+        return exceptionMessage(exception);
+    }
+
+    @ExceptionHandler(ChangesTokenExpiredException.class)
+    @ResponseStatus(code = HttpStatus.GONE)
+    public ErrorResponse handleChangesTokenExpiredException(ChangesTokenExpiredException exception) {
+        return exceptionMessage(exception);
+    }
+
     private ErrorResponse exceptionMessage(Throwable throwable, Object... params) {
         return ErrorResponse.as(message(throwable.getClass().getSimpleName().concat(".message"), params));
     }
@@ -1,16 +1,28 @@
 package br.com.portfolio.repository;
 
 import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GeocodingStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import org.bson.types.ObjectId;
-import org.springframework.data.geo.Distance;
-import org.springframework.data.geo.GeoResults;
-import org.springframework.data.geo.Point;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface CustomerRepository extends MongoRepository<Customer, ObjectId> {
+public interface CustomerRepository extends MongoRepository<Customer, ObjectId>, CustomerRepositoryCustom {
 
-    boolean existsByDocumentNumber(String documentNumber);
+    @Override
+    Optional<Customer> findById(ObjectId id);
 
-    GeoResults<Customer> findByContactNear(Point location, Distance distance);
+    @Override
+    List<Customer> findAllById(Iterable<ObjectId> ids);
+
+    @Override
+    <S extends Customer> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    List<Customer> findByContactStatusAndLastModifiedDateBefore(GeocodingStatus status, LocalDateTime lastModifiedDate,
+            Pageable pageable);
 
 }
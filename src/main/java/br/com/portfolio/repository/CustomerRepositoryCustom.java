@@ -0,0 +1,99 @@
+package br.com.portfolio.repository;
+
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.CustomerTombstone;
+import br.com.portfolio.domain.GeocodingStatus;
+import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoGridCell;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import br.com.portfolio.domain.search.GeoNearCursor;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import com.mongodb.ErrorCategory;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+public interface CustomerRepositoryCustom {
+
+    Optional<Customer> findById(ObjectId id);
+
+    List<Customer> findAllById(Iterable<ObjectId> ids);
+
+    <S extends Customer> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    Optional<Customer> update(ObjectId id, Update update);
+
+    /**
+     * Only matches while {@code changed} holds for the stored customer, so a write that would change nothing is skipped
+     * and notifies no listener.
+     */
+    Optional<Customer> update(ObjectId id, Criteria changed, Update update);
+
+    Optional<Customer> update(ObjectId id, String address, Criteria changed, Update update);
+
+    boolean remove(ObjectId id);
+
+    /**
+     * Unordered: the rest are stored when some fail. Returns the failed positions with their error category.
+     */
+    Map<Integer, ErrorCategory> insertAll(List<Customer> customers);
+
+    Slice<Customer> findSlice(CustomerSearchParams search, Pageable pageable);
+
+    long count(CustomerSearchParams search);
+
+    long estimatedCount();
+
+    CloseableIterator<Customer> stream(LocalDateTime modifiedSince, Collection<String> fields, int batchSize);
+
+    List<Customer> findModifiedAfter(LocalDateTime afterDate, ObjectId afterId, LocalDateTime before,
+            Collection<String> fields, int limit);
+
+    List<CustomerTombstone> findDeletedAfter(LocalDateTime afterDate, ObjectId afterId, LocalDateTime before,
+            int limit);
+
+    List<Customer> findAfter(CustomerSearchParams search, String sortBy, Sort.Direction direction, Object after,
+            int limit);
+
+    default List<GeoResult<Customer>> findNear(Point point, Distance maxDistance, GeoNearCursor after,
+            ObjectId excluded, int limit) {
+        return findNear(point, maxDistance, after, excluded, null, limit);
+    }
+
+    List<GeoResult<Customer>> findNear(Point point, Distance maxDistance, GeoNearCursor after, ObjectId excluded,
+            GeoSearchParams filters, int limit);
+
+    List<GeoResult<Customer>> findNearCompact(Point point, Distance maxDistance, GeoNearCursor after,
+            ObjectId excluded, GeoSearchParams filters, int limit);
+
+    List<Customer> findWithin(GeoJsonPolygon area, ObjectId after, int limit);
+
+    List<GeoGridCell> aggregateGrid(GeoGridQuery grid);
+
+    List<Customer> findCompactByIdIn(Collection<ObjectId> ids);
+
+    List<Customer> findCoordinatesByIdIn(Collection<ObjectId> ids);
+
+    /**
+     * Matches on the address too, so a result for an address replaced in the meantime is discarded.
+     */
+    boolean updateCoordinates(ObjectId id, String address, List<Double> coordinates);
+
+    boolean updateGeocodingStatus(ObjectId id, String address, GeocodingStatus status);
+
+}
@@ -0,0 +1,474 @@
+package br.com.portfolio.repository;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.CustomerTombstone;
+import br.com.portfolio.domain.GeocodingStatus;
+import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoGridCell;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import br.com.portfolio.domain.search.GeoNearCursor;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import br.com.portfolio.events.CustomersInsertedEvent;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.GeoNearOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.util.Streamable;
+
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    private static final String COLLECTION = "customers";
+    private static final String DISTANCE_FIELD = "distance";
+    private static final double INDEXED_GRID_SPAN = 20;
+    private static final double DISTANCE_TOLERANCE = 1e-6;
+    private static final List<String> TOMBSTONE_REMOVED_FIELDS = List.of("name", "gender", "birthDate", "nickname",
+            "email", "contact", "creationDate", "lastModifiedDate");
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Optional<Customer> findById(ObjectId id) {
+        return Optional.ofNullable(mongoTemplate.findOne(byId(id), Customer.class));
+    }
+
+    @Override
+    public List<Customer> findAllById(Iterable<ObjectId> ids) {
+        return mongoTemplate.find(query(where("id").in(Streamable.of(ids).toList()).and("deletedDate").is(null)),
+                Customer.class);
+    }
+
+    @Override
+    public <S extends Customer> Page<S> findAll(Example<S> example, Pageable pageable) {
+        Supplier<Query> query = () -> query(new Criteria().alike(example).and("deletedDate").is(null));
+        return PageableExecutionUtils.getPage(mongoTemplate.find(query.get().with(pageable), example.getProbeType()),
+                pageable, () -> mongoTemplate.count(query.get(), example.getProbeType()));
+    }
+
+    @Override
+    public Optional<Customer> update(ObjectId id, Update update) {
+        return findAndModify(byId(id), update);
+    }
+
+    @Override
+    public Optional<Customer> update(ObjectId id, Criteria changed, Update update) {
+        return findAndModify(byId(id).addCriteria(changed), update);
+    }
+
+    @Override
+    public Optional<Customer> update(ObjectId id, String address, Criteria changed, Update update) {
+        return findAndModify(byIdAndAddress(id, address).addCriteria(changed), update);
+    }
+
+    /**
+     * The tombstone is the customer document itself, stripped down to id and document number and expired by the TTL
+     * index on {@code deletedDate}, so deleting and recording the deletion are a single write.
+     */
+    @Override
+    public boolean remove(ObjectId id) {
+        var tombstone = new Update().set("deletedDate", now());
+        TOMBSTONE_REMOVED_FIELDS.forEach(tombstone::unset);
+        if (mongoTemplate.updateFirst(byId(id), tombstone, Customer.class).getMatchedCount() == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new AfterDeleteEvent<>(new Document("_id", id), Customer.class, COLLECTION));
+        return true;
+    }
+
+    @Override
+    public Map<Integer, ErrorCategory> insertAll(List<Customer> customers) {
+        var now = now();
+        var inserts = new ArrayList<InsertOneModel<Document>>(customers.size());
+        customers.forEach(customer -> {
+            customer.setId(new ObjectId());
+            customer.setCreationDate(now);
+            customer.setLastModifiedDate(now);
+            var document = new Document();
+            mongoTemplate.getConverter().write(customer, document);
+            inserts.add(new InsertOneModel<>(document));
+        });
+
+        Map<Integer, ErrorCategory> failures = mongoTemplate.execute(Customer.class, collection -> {
+            try {
+                collection.bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+                return Map.of();
+            } catch (MongoBulkWriteException e) {
+                if (e.getWriteConcernError() != null) {
+                    log.warn("Bulk insert not acknowledged by the write concern: {}",
+                            kv("error", e.getWriteConcernError().getMessage()));
+                }
+                return e.getWriteErrors().stream().collect(Collectors.toMap(BulkWriteError::getIndex,
+                        error -> ErrorCategory.fromErrorCode(error.getCode())));
+            }
+        });
+
+        var inserted = IntStream.range(0, customers.size())
+                .filter(index -> !failures.containsKey(index))
+                .mapToObj(customers::get)
+                .collect(Collectors.toList());
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(new CustomersInsertedEvent(inserted));
+        }
+        return failures;
+    }
+
+    @Override
+    public Slice<Customer> findSlice(CustomerSearchParams search, Pageable pageable) {
+        var query = search(search).with(pageable).limit(pageable.getPageSize() + 1);
+        var customers = mongoTemplate.find(query, Customer.class);
+        var hasNext = customers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? customers.subList(0, pageable.getPageSize()) : customers, pageable, hasNext);
+    }
+
+    @Override
+    public long count(CustomerSearchParams search) {
+        return mongoTemplate.count(search(search), Customer.class);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount();
+    }
+
+    @Override
+    public CloseableIterator<Customer> stream(LocalDateTime modifiedSince, Collection<String> fields, int batchSize) {
+        var query = query(modifiedSince == null ? where("deletedDate").is(null)
+                : where("lastModifiedDate").gt(modifiedSince));
+        fields.forEach(query.fields()::include);
+        return mongoTemplate.stream(query.cursorBatchSize(batchSize), Customer.class);
+    }
+
+    @Override
+    public List<Customer> findModifiedAfter(LocalDateTime afterDate, ObjectId afterId, LocalDateTime before,
+            Collection<String> fields, int limit) {
+        var query = changedAfter("lastModifiedDate", afterDate, afterId, before).limit(limit);
+        fields.forEach(query.fields()::include);
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public List<CustomerTombstone> findDeletedAfter(LocalDateTime afterDate, ObjectId afterId, LocalDateTime before,
+            int limit) {
+        return mongoTemplate.find(changedAfter("deletedDate", afterDate, afterId, before).limit(limit),
+                CustomerTombstone.class);
+    }
+
+    @Override
+    public List<Customer> findAfter(CustomerSearchParams search, String sortBy, Sort.Direction direction, Object after,
+            int limit) {
+        var query = after == null ? search(search)
+                : search(search, direction.isAscending() ? where(sortBy).gt(after) : where(sortBy).lt(after));
+        return mongoTemplate.find(query.with(Sort.by(direction, sortBy)).limit(limit), Customer.class);
+    }
+
+    @Override
+    public List<GeoResult<Customer>> findNear(Point point, Distance maxDistance, GeoNearCursor after,
+            ObjectId excluded, GeoSearchParams filters, int limit) {
+        return geoNear(point, maxDistance, after, nearCriteria(excluded, filters), limit, null);
+    }
+
+    @Override
+    public List<GeoResult<Customer>> findNearCompact(Point point, Distance maxDistance, GeoNearCursor after,
+            ObjectId excluded, GeoSearchParams filters, int limit) {
+        return geoNear(point, maxDistance, after, nearCriteria(excluded, filters), limit,
+                new Document("name", 1).append(DISTANCE_FIELD, 1));
+    }
+
+    @Override
+    public List<Customer> findWithin(GeoJsonPolygon area, ObjectId after, int limit) {
+        var criteria = where("contact").within(area)
+                .and("contact.status").nin(GeocodingStatus.PENDING, GeocodingStatus.FAILED);
+        if (after != null) {
+            criteria.and("id").gt(after);
+        }
+        return mongoTemplate.find(query(criteria).with(Sort.by("id")).limit(limit), Customer.class);
+    }
+
+    /**
+     * Cells are matched exactly with ranges on the stored coordinates. Areas up to {@link #INDEXED_GRID_SPAN} degrees
+     * are first narrowed by the 2dsphere index. The index takes the stored latitude as x, so edges of constant
+     * longitude are the ones it bends: they bow by less than {@code span² * π / 2880} degrees, and the box is widened
+     * by twice that.
+     */
+    @Override
+    public List<GeoGridCell> aggregateGrid(GeoGridQuery grid) {
+        var criteria = where("contact.status").nin(GeocodingStatus.PENDING, GeocodingStatus.FAILED);
+        below(criteria.and("contact.coordinates.0").gte(grid.getMinLat()), grid.getMaxLat(), 90);
+        below(criteria.and("contact.coordinates.1").gte(grid.getMinLng()), grid.getMaxLng(), 180);
+        var latSpan = grid.getMaxLat() - grid.getMinLat();
+        if (latSpan <= INDEXED_GRID_SPAN && grid.getMaxLng() - grid.getMinLng() <= INDEXED_GRID_SPAN) {
+            var margin = latSpan * latSpan * Math.PI / 1440;
+            criteria.and("contact").within(Contact.box(grid.getMinLat(), Math.max(-90, grid.getMinLng() - margin),
+                    grid.getMaxLat(), Math.min(90, grid.getMaxLng() + margin)));
+        }
+
+        var size = grid.getCellSize();
+        var latitude = new Document("$arrayElemAt", List.of("$contact.coordinates", 0));
+        var longitude = new Document("$arrayElemAt", List.of("$contact.coordinates", 1));
+        AggregationOperation group = context -> new Document("$group", new Document("_id", new Document()
+                .append("row", index(latitude, size, 90))
+                .append("column", index(longitude, size, 180)))
+                .append("count", new Document("$sum", 1))
+                .append("latitude", new Document("$avg", latitude))
+                .append("longitude", new Document("$avg", longitude)));
+        AggregationOperation project = context -> new Document("$project", new Document("_id", 0)
+                .append("row", "$_id.row")
+                .append("column", "$_id.column")
+                .append("count", 1)
+                .append("latitude", 1)
+                .append("longitude", 1));
+        var aggregation = Aggregation.newAggregation(Customer.class, Aggregation.match(criteria), group, project);
+        return mongoTemplate.aggregate(aggregation, GeoGridCell.class).getMappedResults();
+    }
+
+    /**
+     * The last cell of an axis also holds its edge, which is a valid coordinate.
+     */
+    private static void below(Criteria criteria, double max, double edge) {
+        if (max >= edge) {
+            criteria.lte(max);
+        } else {
+            criteria.lt(max);
+        }
+    }
+
+    private static Document index(Document position, double size, double edge) {
+        return new Document("$min", List.of(new Document("$floor", new Document("$divide", List.of(position, size))),
+                GeoGridQuery.lastIndex(size, edge)));
+    }
+
+    @Override
+    public List<Customer> findCompactByIdIn(Collection<ObjectId> ids) {
+        var query = query(where("id").in(ids).and("deletedDate").is(null));
+        query.fields().include("name");
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public List<Customer> findCoordinatesByIdIn(Collection<ObjectId> ids) {
+        var query = query(where("id").in(ids).and("deletedDate").is(null)
+                .and("contact.status").nin(GeocodingStatus.PENDING, GeocodingStatus.FAILED));
+        query.fields().include("contact.coordinates");
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public boolean updateCoordinates(ObjectId id, String address, List<Double> coordinates) {
+        var update = new Update()
+                .set("contact.coordinates", coordinates)
+                .set("contact.status", GeocodingStatus.RESOLVED);
+        return findAndModify(byIdAndAddress(id, address), update).isPresent();
+    }
+
+    @Override
+    public boolean updateGeocodingStatus(ObjectId id, String address, GeocodingStatus status) {
+        var update = new Update().set("contact.status", status).set("lastModifiedDate", now());
+        return mongoTemplate.updateFirst(byIdAndAddress(id, address), update, Customer.class).getModifiedCount() > 0;
+    }
+
+    private static Criteria nearCriteria(ObjectId excluded, GeoSearchParams filters) {
+        var criteria = where("contact.status").nin(GeocodingStatus.PENDING, GeocodingStatus.FAILED);
+        if (excluded != null) {
+            criteria.and("id").ne(excluded);
+        }
+        if (filters != null) {
+            filter(criteria, filters);
+        }
+        return criteria;
+    }
+
+    /**
+     * {@code $geoNear} returns customers at the same distance in no particular order, so pages are ordered by distance
+     * and then id. One customer past the page is read: only when it ties with the last one of the page are the
+     * customers at that distance read again, in id order, to fill the rest of the page.
+     */
+    private List<GeoResult<Customer>> geoNear(Point point, Distance maxDistance, GeoNearCursor after,
+            Criteria criteria, int limit, Document projection) {
+        var near = NearQuery.near(point).spherical(true).inKilometers().query(query(criteria));
+        if (maxDistance != null) {
+            near.maxDistance(maxDistance);
+        }
+        Document position = null;
+        if (after != null) {
+            near.minDistance(new Distance(Math.max(0, after.getDistance() - DISTANCE_TOLERANCE), Metrics.KILOMETERS));
+            position = new Document("$or", List.of(
+                    new Document(DISTANCE_FIELD, new Document("$gt", after.getDistance())),
+                    new Document(DISTANCE_FIELD, after.getDistance()).append("_id", new Document("$gt", after.getId()))));
+        }
+        var found = geoNear(near, position, null, limit + 1, projection);
+        if (found.size() <= limit) {
+            return found;
+        }
+        var distance = found.get(limit - 1).getDistance().getValue();
+        if (found.get(limit).getDistance().getValue() != distance) {
+            return sortTies(found.subList(0, limit));
+        }
+
+        var page = found.stream().filter(result -> result.getDistance().getValue() < distance)
+                .collect(Collectors.toCollection(ArrayList::new));
+        var tie = NearQuery.near(point).spherical(true).inKilometers().query(query(criteria))
+                .minDistance(new Distance(Math.max(0, distance - DISTANCE_TOLERANCE), Metrics.KILOMETERS))
+                .maxDistance(new Distance(distance + DISTANCE_TOLERANCE, Metrics.KILOMETERS));
+        var tied = new Document(DISTANCE_FIELD, distance);
+        if (after != null && after.getDistance() == distance) {
+            tied.append("_id", new Document("$gt", after.getId()));
+        }
+        page.addAll(geoNear(tie, tied, new Document("_id", 1), limit - page.size(), projection));
+        return sortTies(page);
+    }
+
+    /**
+     * {@link GeoNearOperation} does not expose its distance field to later stages of a typed aggregation, so those
+     * stages are written as raw documents.
+     */
+    private List<GeoResult<Customer>> geoNear(NearQuery near, Document match, Document sort, int limit,
+            Document projection) {
+        var stages = new ArrayList<AggregationOperation>();
+        stages.add(Aggregation.geoNear(near, DISTANCE_FIELD));
+        if (match != null) {
+            stages.add(context -> new Document("$match", match));
+        }
+        if (sort != null) {
+            stages.add(context -> new Document("$sort", sort));
+        }
+        stages.add(Aggregation.limit(limit));
+        if (projection != null) {
+            stages.add(context -> new Document("$project", projection));
+        }
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Customer.class, stages), Document.class)
+                .getMappedResults().stream()
+                .map(document -> new GeoResult<>(mongoTemplate.getConverter().read(Customer.class, document),
+                        new Distance(document.get(DISTANCE_FIELD, Number.class).doubleValue(), Metrics.KILOMETERS)))
+                .collect(Collectors.toList());
+    }
+
+    private static List<GeoResult<Customer>> sortTies(List<GeoResult<Customer>> results) {
+        var sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.<GeoResult<Customer>>comparingDouble(result -> result.getDistance().getValue())
+                .thenComparing(result -> result.getContent().getId()));
+        return sorted;
+    }
+
+    private static void filter(Criteria criteria, GeoSearchParams filters) {
+        if (filters.getName() != null) {
+            criteria.and("name").is(filters.getName());
+        }
+        if (filters.getDocumentNumber() != null) {
+            criteria.and("documentNumber").is(filters.getDocumentNumber());
+        }
+        if (filters.getGender() != null) {
+            criteria.and("gender").is(filters.getGender());
+        }
+        if (filters.getMinAge() == null && filters.getMaxAge() == null) {
+            return;
+        }
+        var today = now().toLocalDate();
+        var birthDate = criteria.and("birthDate");
+        if (filters.getMinAge() != null) {
+            birthDate.lte(today.minusYears(filters.getMinAge()));
+        }
+        if (filters.getMaxAge() != null) {
+            birthDate.gt(today.minusYears(filters.getMaxAge() + 1L));
+        }
+    }
+
+    private Optional<Customer> findAndModify(Query query, Update update) {
+        var updated = mongoTemplate.findAndModify(query, update.set("lastModifiedDate", now()),
+                FindAndModifyOptions.options().returnNew(true), Customer.class);
+        return Optional.ofNullable(updated).map(this::afterSave);
+    }
+
+    /**
+     * findAndModify does not raise mapping events, so the AfterSaveEvent a save would have raised is published here to
+     * keep listeners such as the Elasticsearch sync current.
+     */
+    private Customer afterSave(Customer customer) {
+        var document = new Document();
+        mongoTemplate.getConverter().write(customer, document);
+        eventPublisher.publishEvent(new AfterSaveEvent<>(customer, document, COLLECTION));
+        return customer;
+    }
+
+    private static Query byId(ObjectId id) {
+        return query(where("id").is(id).and("deletedDate").is(null));
+    }
+
+    private Query byIdAndAddress(ObjectId id, String address) {
+        return query(where("id").is(id).and("contact.address").is(address));
+    }
+
+    private static Query changedAfter(String dateField, LocalDateTime afterDate, ObjectId afterId,
+            LocalDateTime before) {
+        var criteria = where(dateField).lt(before);
+        if (afterDate != null) {
+            criteria = afterId == null ? criteria.gt(afterDate) : new Criteria().andOperator(criteria,
+                    new Criteria().orOperator(where(dateField).gt(afterDate),
+                            where(dateField).is(afterDate).and("id").gt(afterId)));
+        }
+        return query(criteria).with(Sort.by(dateField, "id"));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    private static Query search(CustomerSearchParams search, Criteria... conditions) {
+        var criteria = new ArrayList<>(List.of(conditions));
+        criteria.add(where("deletedDate").is(null));
+        if (search.getName() != null) {
+            criteria.add(where("name").is(search.getName()));
+        }
+        if (search.getDocumentNumber() != null) {
+            criteria.add(where("documentNumber").is(search.getDocumentNumber()));
+        }
+        return query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.portfolio.repository;
+
+import br.com.portfolio.domain.Geocode;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface GeocodeRepository extends MongoRepository<Geocode, ObjectId> {
+
+}
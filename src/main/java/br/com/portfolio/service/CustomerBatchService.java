@@ -0,0 +1,165 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.payload.CreateCustomerBatchPayload;
+import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.response.CustomerBatchItemResponse;
+import br.com.portfolio.domain.response.CustomerBatchResponse;
+import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.response.ErrorResponse;
+import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.exception.CustomerAlreadyExistsException;
+import br.com.portfolio.exception.CustomerNotStoredException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.repository.CustomerRepository;
+import com.mongodb.ErrorCategory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class CustomerBatchService {
+
+    private final CustomerService customerService;
+    private final CustomerRepository repository;
+    private final DocumentNumberService documentNumberService;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final TaskExecutor batchGeocodingExecutor;
+
+    public CustomerBatchService(CustomerService customerService, CustomerRepository repository,
+            DocumentNumberService documentNumberService, Validator validator, MessageSource messageSource,
+            @Qualifier("batchGeocodingExecutor") TaskExecutor batchGeocodingExecutor) {
+        this.customerService = customerService;
+        this.repository = repository;
+        this.documentNumberService = documentNumberService;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        this.batchGeocodingExecutor = batchGeocodingExecutor;
+    }
+
+    public CustomerBatchResponse create(@Valid CreateCustomerBatchPayload payload) {
+        var payloads = payload.getCustomers();
+        log.info("Create customers in batch: {}", kv("customers", payloads.size()));
+        var results = new CustomerBatchItemResponse[payloads.size()];
+
+        var accepted = validate(payloads, results);
+        rejectDuplicates(payloads, accepted, results);
+        var customers = createModels(payloads, accepted, results);
+        insert(customers, results);
+
+        var response = new CustomerBatchResponse(Arrays.asList(results));
+        log.info("Customers created in batch: {} {}", kv("created", response.getCreated()),
+                kv("failed", response.getFailed()));
+        return response;
+    }
+
+    private List<Integer> validate(List<CreateCustomerPayload> payloads, CustomerBatchItemResponse[] results) {
+        var accepted = new ArrayList<Integer>(payloads.size());
+        for (int index = 0; index < payloads.size(); index++) {
+            var violations = validator.validate(payloads.get(index));
+            if (violations.isEmpty()) {
+                accepted.add(index);
+                continue;
+            }
+            var errors = violations.stream()
+                    .map(violation -> ErrorResponse.as(violation.getMessage())
+                            .tag(violation.getPropertyPath().toString()))
+                    .collect(Collectors.toList());
+            results[index] = CustomerBatchItemResponse.failed(index, HttpStatus.BAD_REQUEST, errors);
+        }
+        return accepted;
+    }
+
+    private void rejectDuplicates(List<CreateCustomerPayload> payloads, List<Integer> accepted,
+            CustomerBatchItemResponse[] results) {
+        var firstIndexes = new HashMap<String, Integer>();
+        accepted.removeIf(index -> {
+            var first = firstIndexes.putIfAbsent(payloads.get(index).getDocumentNumber(), index);
+            if (first != null) {
+                results[index] = failed(index, new CustomerAlreadyExistsException(), HttpStatus.CONFLICT);
+            }
+            return first != null;
+        });
+        var existing = documentNumberService.findExisting(firstIndexes.keySet());
+        accepted.removeIf(index -> {
+            var exists = existing.contains(payloads.get(index).getDocumentNumber());
+            if (exists) {
+                results[index] = failed(index, new CustomerAlreadyExistsException(), HttpStatus.CONFLICT);
+            }
+            return exists;
+        });
+    }
+
+    private Map<Integer, Customer> createModels(List<CreateCustomerPayload> payloads, List<Integer> accepted,
+            CustomerBatchItemResponse[] results) {
+        var futures = new LinkedHashMap<Integer, CompletableFuture<Customer>>();
+        accepted.forEach(index -> futures.put(index, CompletableFuture.supplyAsync(
+                () -> customerService.createModel(payloads.get(index)), batchGeocodingExecutor)));
+
+        var customers = new LinkedHashMap<Integer, Customer>();
+        futures.forEach((index, future) -> {
+            try {
+                customers.put(index, future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof AddressNotFoundException) {
+                    results[index] = failed(index, e.getCause(), HttpStatus.NOT_FOUND);
+                } else if (e.getCause() instanceof GeocodingUnavailableException) {
+                    results[index] = failed(index, e.getCause(), HttpStatus.SERVICE_UNAVAILABLE);
+                } else {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        });
+        return customers;
+    }
+
+    /**
+     * A customer rejected by the unique index was created concurrently by another request after the duplicate check.
+     * Any other write error fails only its own customer, since the rest of the unordered write is stored.
+     */
+    private void insert(Map<Integer, Customer> customers, CustomerBatchItemResponse[] results) {
+        if (customers.isEmpty()) {
+            return;
+        }
+        var indexes = new ArrayList<>(customers.keySet());
+        var models = new ArrayList<>(customers.values());
+        var failures = repository.insertAll(models);
+        for (int position = 0; position < models.size(); position++) {
+            var index = indexes.get(position);
+            var failure = failures.get(position);
+            if (failure == ErrorCategory.DUPLICATE_KEY) {
+                results[index] = failed(index, new CustomerAlreadyExistsException(), HttpStatus.CONFLICT);
+            } else if (failure != null) {
+                results[index] = failed(index, new CustomerNotStoredException(), HttpStatus.INTERNAL_SERVER_ERROR);
+            } else {
+                customerService.enqueueIfPending(models.get(position));
+                results[index] = CustomerBatchItemResponse.created(index, new CustomerResponse(models.get(position)));
+            }
+        }
+    }
+
+    private CustomerBatchItemResponse failed(int index, Throwable exception, HttpStatus status) {
+        var message = messageSource.getMessage(exception.getClass().getSimpleName().concat(".message"), null,
+                LocaleContextHolder.getLocale());
+        return CustomerBatchItemResponse.failed(index, status, List.of(ErrorResponse.as(message)));
+    }
+}
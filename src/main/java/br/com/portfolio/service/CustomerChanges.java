@@ -0,0 +1,113 @@
+package br.com.portfolio.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import br.com.portfolio.component.AddressNormalizer;
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GenderEnum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Compares incoming values with the stored {@link Customer} and collects only the modified fields into a single
+ * {@code $set}/{@code $unset}. Without a stored customer every value is written as given, and {@link #getDifference()}
+ * lets the write match only a customer that differs in at least one of them.
+ */
+class CustomerChanges {
+
+    private final Customer stored;
+    private final Update update = new Update();
+    private final List<Criteria> differences = new ArrayList<>();
+    private boolean changed;
+    private String newAddress;
+
+    CustomerChanges() {
+        this(null);
+    }
+
+    CustomerChanges(Customer stored) {
+        this.stored = stored;
+    }
+
+    CustomerChanges name(String name) {
+        return field("name", stored(Customer::getName), name);
+    }
+
+    CustomerChanges gender(GenderEnum gender) {
+        return field("gender", stored(Customer::getGender), gender);
+    }
+
+    CustomerChanges nickname(String nickname) {
+        return field("nickname", stored(Customer::getNickname), nickname);
+    }
+
+    CustomerChanges email(String email) {
+        return field("email", stored(Customer::getEmail), email);
+    }
+
+    /**
+     * A new spelling of the same address only rewrites the text; the coordinates are kept.
+     */
+    CustomerChanges address(String address) {
+        var storedAddress = stored == null || stored.getContact() == null ? null : stored.getContact().getAddress();
+        if (AddressNormalizer.normalize(address).equals(AddressNormalizer.normalize(storedAddress))) {
+            return field("contact.address", storedAddress, address);
+        }
+        newAddress = address;
+        return this;
+    }
+
+    boolean isAddressChanged() {
+        return newAddress != null;
+    }
+
+    String getNewAddress() {
+        return newAddress;
+    }
+
+    CustomerChanges contact(Contact contact) {
+        update.set("contact", contact);
+        changed = true;
+        return this;
+    }
+
+    boolean isEmpty() {
+        return !changed;
+    }
+
+    Update getUpdate() {
+        return update;
+    }
+
+    /**
+     * Matches a stored customer holding another value in any of the fields written without a stored customer.
+     */
+    Criteria getDifference() {
+        return new Criteria().orOperator(differences.toArray(new Criteria[0]));
+    }
+
+    private <T> T stored(Function<Customer, T> getter) {
+        return stored == null ? null : getter.apply(stored);
+    }
+
+    private CustomerChanges field(String key, Object storedValue, Object value) {
+        if (stored != null && Objects.equals(storedValue, value)) {
+            return this;
+        }
+        if (stored == null) {
+            differences.add(where(key).ne(value));
+        }
+        if (value == null) {
+            update.unset(key);
+        } else {
+            update.set(key, value);
+        }
+        changed = true;
+        return this;
+    }
+}
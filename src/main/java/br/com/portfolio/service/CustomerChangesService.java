@@ -0,0 +1,68 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.CustomerTombstone;
+import br.com.portfolio.domain.response.CustomerChangesResponse;
+import br.com.portfolio.domain.response.CustomerExportResponse;
+import br.com.portfolio.domain.response.CustomerTombstoneResponse;
+import br.com.portfolio.domain.search.ChangesToken;
+import br.com.portfolio.exception.ChangesTokenExpiredException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class CustomerChangesService {
+
+    private static final Duration TOMBSTONE_RETENTION = Duration.parse(CustomerTombstone.RETENTION);
+
+    private final CustomerRepository repository;
+    private final Duration settleTime;
+
+    public CustomerChangesService(CustomerRepository repository,
+            @Value("${local.customers.changes.settle-time:PT5S}") Duration settleTime) {
+        this.repository = repository;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Changes younger than {@code settle-time} are held back: writes are dated before they become visible, so a
+     * concurrent write can still show up dated earlier than one already returned. A stream read to its end moves its
+     * position up to that horizon, so idle streams do not age the token.
+     */
+    public CustomerChangesResponse findChanges(String token, LocalDateTime since, int limit) {
+        var now = LocalDateTime.now(ZoneOffset.UTC);
+        var horizon = now.minus(settleTime).truncatedTo(ChronoUnit.MILLIS);
+        var seen = horizon.minus(1, ChronoUnit.MILLIS);
+        var position = token != null ? ChangesToken.decode(token)
+                : new ChangesToken(since, null, since == null ? seen : since, null);
+        if (position.getDeletedDate() != null && position.getDeletedDate().isBefore(now.minus(TOMBSTONE_RETENTION))) {
+            throw new ChangesTokenExpiredException();
+        }
+
+        var modified = repository.findModifiedAfter(position.getModifiedDate(), position.getModifiedId(), horizon,
+                CustomerExportService.FIELDS, limit);
+        var deleted = repository.findDeletedAfter(position.getDeletedDate(), position.getDeletedId(), horizon, limit);
+        var lastModified = modified.size() < limit ? null : modified.get(limit - 1);
+        var lastDeleted = deleted.size() < limit ? null : deleted.get(limit - 1);
+        var next = new ChangesToken(
+                lastModified == null ? seen : lastModified.getLastModifiedDate(),
+                lastModified == null ? null : lastModified.getId(),
+                lastDeleted == null ? seen : lastDeleted.getDeletedDate(),
+                lastDeleted == null ? null : lastDeleted.getId());
+        log.info("Customer changes read: {} {}", kv("modified", modified.size()), kv("deleted", deleted.size()));
+
+        return new CustomerChangesResponse(
+                modified.stream().map(CustomerExportResponse::new).collect(Collectors.toList()),
+                deleted.stream().map(CustomerTombstoneResponse::new).collect(Collectors.toList()),
+                next.encode(), lastModified != null || lastDeleted != null);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.response.CustomerExportResponse;
+import br.com.portfolio.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class CustomerExportService {
+
+    static final List<String> FIELDS = List.of("name", "gender", "nickname", "email", "contact.address",
+            "contact.status", "birthDate", "documentNumber", "lastModifiedDate");
+
+    private final CustomerRepository repository;
+    private final ObjectWriter writer;
+    private final int batchSize;
+
+    public CustomerExportService(CustomerRepository repository, ObjectMapper objectMapper,
+            @Value("${local.customers.export.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.writer = objectMapper.writerFor(CustomerExportResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+    }
+
+    public void export(LocalDateTime modifiedSince, OutputStream output) throws IOException {
+        var exported = 0L;
+        try (var customers = repository.stream(modifiedSince, FIELDS, batchSize);
+                var generator = writer.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (customers.hasNext()) {
+                writer.writeValue(generator, new CustomerExportResponse(customers.next()));
+                generator.writeRaw('\n');
+                exported++;
+            }
+        }
+        log.info("Customers exported: {} {}", kv("customers", exported), kv("modifiedSince", modifiedSince));
+    }
+}
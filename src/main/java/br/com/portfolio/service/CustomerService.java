@@ -2,55 +2,169 @@ package br.com.portfolio.service;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
+import br.com.portfolio.component.CustomerCountCache;
+import br.com.portfolio.component.SpatialGrid.Neighbor;
 import br.com.portfolio.domain.Contact;
 import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GeocodingStatus;
 import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.payload.GeoBatchPayload;
+import br.com.portfolio.domain.payload.GeoPolygonPayload;
+import br.com.portfolio.domain.payload.PatchCustomerPayload;
 import br.com.portfolio.domain.payload.UpdateCustomerPayload;
+import br.com.portfolio.domain.response.CursorPageResponse;
+import br.com.portfolio.domain.response.CustomerCompactDistanceResponse;
 import br.com.portfolio.domain.response.CustomerDistanceResponse;
 import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.search.CountMode;
 import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoNearCursor;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import br.com.portfolio.domain.search.IdCursor;
+import br.com.portfolio.domain.search.KeysetCursor;
 import br.com.portfolio.exception.CustomerAlreadyExistsException;
 import br.com.portfolio.exception.CustomerNotFoundException;
+import br.com.portfolio.exception.CustomerNotGeocodedException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.exception.InvalidGeometryException;
 import br.com.portfolio.repository.CustomerRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import javax.validation.Valid;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.geo.Distance;
-import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.GeoResult;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.stereotype.Service;
 
 @Service
-@AllArgsConstructor
 @Slf4j
 public class CustomerService {
 
     private final CustomerRepository repository;
     private final GeoLocationService geolocationService;
+    private final DeferredGeocodingService deferredGeocodingService;
+    private final CustomerSpatialIndex spatialIndex;
+    private final TaskExecutor geoSearchExecutor;
+    private final CustomerCountCache countCache;
+    private final DocumentNumberService documentNumberService;
+
+    public CustomerService(CustomerRepository repository, GeoLocationService geolocationService,
+            DeferredGeocodingService deferredGeocodingService, CustomerSpatialIndex spatialIndex,
+            @Qualifier("geoSearchExecutor") TaskExecutor geoSearchExecutor, CustomerCountCache countCache,
+            DocumentNumberService documentNumberService) {
+        this.repository = repository;
+        this.geolocationService = geolocationService;
+        this.deferredGeocodingService = deferredGeocodingService;
+        this.spatialIndex = spatialIndex;
+        this.geoSearchExecutor = geoSearchExecutor;
+        this.countCache = countCache;
+        this.documentNumberService = documentNumberService;
+    }
 
     public CustomerResponse create(@Valid CreateCustomerPayload payload) {
         log.info("Create customer - Payload: {}", kv("CreateCustomerPayload", payload));
-        if (repository.existsByDocumentNumber(payload.getDocumentNumber())) {
+        if (!documentNumberService.findExisting(List.of(payload.getDocumentNumber())).isEmpty()) {
             throw new CustomerAlreadyExistsException();
         }
-        return new CustomerResponse(repository.save(createModel(payload)));
+        var customer = insert(createModel(payload));
+        enqueueIfPending(customer);
+        return new CustomerResponse(customer);
     }
 
+    private Customer insert(Customer customer) {
+        try {
+            return repository.save(customer);
+        } catch (DuplicateKeyException e) {
+            throw new CustomerAlreadyExistsException();
+        }
+    }
 
+    /**
+     * One conditional write when the address is unchanged and another field differs, which is the common case. When it
+     * misses the stored customer is read, so a payload without changes costs two round trips and a new address three,
+     * plus geocoding.
+     */
     public CustomerResponse update(ObjectId id, @Valid UpdateCustomerPayload payload) {
         log.info("Update customer - Id: {} Payload: {}", kv("Id", id), kv("UpdateCustomerPayload", payload));
 
-        return repository.findById(id).map(customer -> repository.save(updateModel(payload, customer))
-                ).map(CustomerResponse::new)
-                .orElseThrow(CustomerNotFoundException::new);
+        var changes = fields(new CustomerChanges(), payload);
+        var customer = repository.update(id, payload.getAddress(), changes.getDifference(), changes.getUpdate())
+                .orElseGet(() -> {
+                    var stored = getCustomerById(id);
+                    return apply(stored, fields(new CustomerChanges(stored), payload).address(payload.getAddress()));
+                });
+        return new CustomerResponse(customer);
+    }
+
+    public CustomerResponse patch(ObjectId id, @Valid PatchCustomerPayload payload) {
+        log.info("Patch customer - Id: {} Payload: {}", kv("Id", id), kv("PatchCustomerPayload", payload));
+
+        var changes = fields(new CustomerChanges(), payload);
+        if (payload.getAddress() == null) {
+            if (changes.isEmpty()) {
+                return findById(id);
+            }
+            return new CustomerResponse(repository.update(id, changes.getDifference(), changes.getUpdate())
+                    .orElseGet(() -> getCustomerById(id)));
+        }
+        var updated = changes.isEmpty() ? Optional.<Customer>empty()
+                : repository.update(id, payload.getAddress(), changes.getDifference(), changes.getUpdate());
+        var customer = updated.orElseGet(() -> {
+            var stored = getCustomerById(id);
+            return apply(stored, fields(new CustomerChanges(stored), payload).address(payload.getAddress()));
+        });
+        return new CustomerResponse(customer);
+    }
+
+    private CustomerChanges fields(CustomerChanges changes, UpdateCustomerPayload payload) {
+        return changes.name(payload.getName())
+                .gender(payload.getGender())
+                .nickname(payload.getNickname())
+                .email(payload.getEmail());
+    }
+
+    private CustomerChanges fields(CustomerChanges changes, PatchCustomerPayload payload) {
+        Optional.ofNullable(payload.getName()).ifPresent(changes::name);
+        Optional.ofNullable(payload.getGender()).ifPresent(changes::gender);
+        Optional.ofNullable(payload.getNickname()).ifPresent(changes::nickname);
+        Optional.ofNullable(payload.getEmail()).ifPresent(changes::email);
+        return changes;
+    }
+
+    private Customer apply(Customer stored, CustomerChanges changes) {
+        if (changes.isAddressChanged()) {
+            changes.contact(contact(changes.getNewAddress()));
+        }
+        if (changes.isEmpty()) {
+            return stored;
+        }
+        var customer = repository.update(stored.getId(), changes.getUpdate()).orElseThrow(CustomerNotFoundException::new);
+        enqueueIfPending(customer);
+        return customer;
     }
 
     public CustomerResponse findById(ObjectId id) {
@@ -59,9 +173,9 @@ public class CustomerService {
 
     public void delete(ObjectId id) {
         log.info("Delete customer -  Id: {}", kv("Id", id));
-        final var customer = getCustomerById(id);
-
-        repository.delete(customer);
+        if (!repository.remove(id)) {
+            throw new CustomerNotFoundException();
+        }
     }
 
     private Customer getCustomerById(ObjectId id) {
@@ -72,8 +186,48 @@ public class CustomerService {
         return repository.findAll(example(search), pageable).map(CustomerResponse::new);
     }
 
-    private Customer createModel(CreateCustomerPayload payload) {
-        var latLong = getLatLongByAddress(payload.getAddress());
+    /**
+     * Same listing as {@link #findAll(Pageable, CustomerSearchParams)}, with the total obtained as {@code count} says.
+     * No total is looked up when the page itself shows where the listing ends, and an approximate total is raised to
+     * the customers already seen so it never contradicts the page.
+     */
+    public Page<CustomerResponse> findAll(Pageable pageable, CustomerSearchParams search, CountMode count) {
+        if (count == CountMode.EXACT) {
+            return findAll(pageable, search);
+        }
+        var slice = repository.findSlice(search, pageable);
+        var seen = pageable.getOffset() + slice.getNumberOfElements();
+        var total = slice.hasNext() ? Math.max(count(search, count), seen + 1)
+                : slice.hasContent() || pageable.getOffset() == 0 ? seen : count(search, count);
+        return new PageImpl<>(slice.getContent(), pageable, total).map(CustomerResponse::new);
+    }
+
+    public Slice<CustomerResponse> findSlice(Pageable pageable, CustomerSearchParams search) {
+        return repository.findSlice(search, pageable).map(CustomerResponse::new);
+    }
+
+    private long count(CustomerSearchParams search, CountMode count) {
+        if (count == CountMode.ESTIMATED && !search.hasFilters()) {
+            return repository.estimatedCount();
+        }
+        return countCache.get(search, repository::count);
+    }
+
+    public CursorPageResponse<CustomerResponse> findAll(CustomerSearchParams search, String sortBy,
+            Sort.Direction direction, int limit, String cursor) {
+        var after = cursor == null ? null : KeysetCursor.decode(cursor, sortBy, direction).getKey();
+        var customers = repository.findAfter(search, sortBy, direction, after, limit);
+        var next = customers.size() < limit ? null
+                : new KeysetCursor(sortBy, direction, sortValue(customers.get(customers.size() - 1), sortBy)).encode();
+        return new CursorPageResponse<>(customers.stream().map(CustomerResponse::new).collect(Collectors.toList()), next);
+    }
+
+    private static String sortValue(Customer customer, String sortBy) {
+        return KeysetCursor.ID.equals(sortBy) ? customer.getId().toHexString()
+                : Objects.toString(customer.getDocumentNumber(), "");
+    }
+
+    Customer createModel(CreateCustomerPayload payload) {
         return Customer.builder()
                 .name(payload.getName())
                 .gender(payload.getGender())
@@ -81,18 +235,29 @@ public class CustomerService {
                 .documentNumber(payload.getDocumentNumber())
                 .nickname(payload.getNickname())
                 .email(payload.getEmail())
-                .contact(Contact.builder().coordinates(latLong).address(payload.getAddress()).build())
+                .contact(contact(payload.getAddress()))
                 .build();
     }
 
-    private Customer updateModel(UpdateCustomerPayload payload, Customer model) {
-        var latLong = getLatLongByAddress(payload.getAddress());
-        model.setName(payload.getName());
-        model.setGender(payload.getGender());
-        model.setNickname(payload.getNickname());
-        model.setEmail(payload.getEmail());
-        model.setContact(Contact.builder().coordinates(latLong).address(payload.getAddress()).build());
-        return model;
+    private Contact contact(String address) {
+        if (deferredGeocodingService.isEnabled()) {
+            return Contact.pending(address);
+        }
+        try {
+            return Contact.resolved(address, getLatLongByAddress(address));
+        } catch (GeocodingUnavailableException e) {
+            if (!deferredGeocodingService.isFallbackEnabled()) {
+                throw e;
+            }
+            log.warn("Geocoding unavailable, deferring: {}", kv("address", address));
+            return Contact.pending(address);
+        }
+    }
+
+    void enqueueIfPending(Customer customer) {
+        if (customer.getContact() != null && customer.getContact().getStatus() == GeocodingStatus.PENDING) {
+            deferredGeocodingService.enqueue(customer.getId(), customer.getContact().getAddress());
+        }
     }
 
     private List<Double> getLatLongByAddress(String address) {
@@ -108,28 +273,216 @@ public class CustomerService {
         return Example.of(filters(search));
     }
 
-    public List<CustomerDistanceResponse> findByLocationNear(Integer maxDistanceInKm, ObjectId id) {
+    public CursorPageResponse<CustomerDistanceResponse> findByLocationNear(Integer maxDistanceInKm, ObjectId id,
+            int limit, String cursor, GeoSearchParams filters) {
+        return findByLocationNear(maxDistanceInKm, id, limit, cursor, filters, false, CustomerDistanceResponse::new);
+    }
+
+    public CursorPageResponse<CustomerCompactDistanceResponse> findCompactByLocationNear(Integer maxDistanceInKm,
+            ObjectId id, int limit, String cursor, GeoSearchParams filters) {
+        return findByLocationNear(maxDistanceInKm, id, limit, cursor, filters, true,
+                CustomerCompactDistanceResponse::new);
+    }
+
+    /**
+     * The in-memory index holds coordinates only, so filtered searches always go to Mongo.
+     */
+    private <T> CursorPageResponse<T> findByLocationNear(Integer maxDistanceInKm, ObjectId id, int limit,
+            String cursor, GeoSearchParams filters, boolean compact, BiFunction<Customer, Double, T> response) {
+        var after = cursor == null ? null : GeoNearCursor.decode(cursor);
+        if (spatialIndex.isReady() && (filters == null || !filters.hasFilters())) {
+            return findByLocationNearInIndex(maxDistanceInKm, id, limit, after, compact, response);
+        }
+        var point = getOrigin(getCustomerById(id));
+        var nearestCustomers = compact
+                ? repository.findNearCompact(point, getDistance(maxDistanceInKm), after, id, filters, limit)
+                : repository.findNear(point, getDistance(maxDistanceInKm), after, id, filters, limit);
+        var neighbors = nearestCustomers.stream()
+                .map(geoResult -> new Neighbor(geoResult.getContent().getId(), geoResult.getDistance().getValue()))
+                .collect(Collectors.toList());
+        var content = nearestCustomers.stream()
+                .map(geoResult -> response.apply(geoResult.getContent(), geoResult.getDistance().getValue()))
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor(neighbors, limit));
+    }
+
+    private <T> CursorPageResponse<T> findByLocationNearInIndex(Integer maxDistanceInKm, ObjectId id, int limit,
+            GeoNearCursor after, boolean compact, BiFunction<Customer, Double, T> response) {
+        var point = spatialIndex.find(id).orElseGet(() -> getOrigin(getCustomerById(id)));
+        var neighbors = spatialIndex.findWithin(point, maxDistanceInKm).stream()
+                .filter(neighbor -> !neighbor.getId().equals(id))
+                .filter(neighbor -> after == null || after.precedes(neighbor.getDistance(), neighbor.getId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+        var ids = neighbors.stream().map(Neighbor::getId).collect(Collectors.toList());
+        var customers = compact ? asMap(ids.isEmpty() ? List.of() : repository.findCompactByIdIn(ids))
+                : findAllByIdAsMap(ids);
+        return new CursorPageResponse<>(getNeighborResponseList(neighbors, customers, response),
+                nextCursor(neighbors, limit));
+    }
+
+    public Map<String, List<CustomerDistanceResponse>> findByLocationNear(@Valid GeoBatchPayload payload) {
+        log.info("Batch geo search - Origins: {}", kv("origins", payload.getIds().size()));
+        var ids = payload.getIds().stream().map(ObjectId::new).distinct().collect(Collectors.toList());
+        var origins = findOriginPoints(ids);
+        var distance = getDistance(payload.getMaxDistanceInKm());
+
+        var result = new LinkedHashMap<String, List<CustomerDistanceResponse>>();
+        if (spatialIndex.isReady()) {
+            var neighbors = new LinkedHashMap<ObjectId, List<Neighbor>>();
+            origins.forEach((id, point) -> neighbors.put(id, point == null ? List.of()
+                    : spatialIndex.findWithin(point, payload.getMaxDistanceInKm()).stream()
+                            .filter(neighbor -> !neighbor.getId().equals(id))
+                            .limit(payload.getLimit())
+                            .collect(Collectors.toList())));
+            var customers = findAllByIdAsMap(neighbors.values().stream()
+                    .flatMap(List::stream)
+                    .map(Neighbor::getId)
+                    .collect(Collectors.toSet()));
+            neighbors.forEach((id, found) -> result.put(id.toHexString(), getNeighborResponseList(found, customers)));
+            return result;
+        }
+
+        var searches = new LinkedHashMap<ObjectId, CompletableFuture<List<CustomerDistanceResponse>>>();
+        origins.forEach((id, point) -> searches.put(id, point == null ? CompletableFuture.completedFuture(List.of())
+                : CompletableFuture.supplyAsync(() -> getDistanceResponseList(
+                        repository.findNear(point, distance, null, id, payload.getLimit())), geoSearchExecutor)));
+        try {
+            searches.forEach((id, search) -> result.put(id.toHexString(), search.join()));
+        } catch (CompletionException e) {
+            searches.values().forEach(search -> search.cancel(false));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return result;
+    }
+
+    private Map<ObjectId, Point> findOriginPoints(List<ObjectId> ids) {
+        var points = new HashMap<ObjectId, Point>();
+        if (spatialIndex.isReady()) {
+            ids.forEach(id -> spatialIndex.find(id).ifPresent(point -> points.put(id, point)));
+        }
+        var missing = ids.stream().filter(id -> !points.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            repository.findAllById(missing).forEach(customer -> points.put(customer.getId(),
+                    isGeocoded(customer) ? getPoint(customer) : null));
+        }
+        var origins = new LinkedHashMap<ObjectId, Point>();
+        ids.stream().filter(points::containsKey).forEach(id -> origins.put(id, points.get(id)));
+        return origins;
+    }
+
+    public CursorPageResponse<CustomerResponse> findWithin(@Valid GeoPolygonPayload payload, int limit, String cursor) {
+        var points = payload.getVertices().stream()
+                .map(vertex -> Contact.point(vertex.getLat(), vertex.getLng()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!points.get(0).equals(points.get(points.size() - 1))) {
+            points.add(points.get(0));
+        }
+        if (new HashSet<>(points).size() < 3) {
+            throw new InvalidGeometryException();
+        }
+        return findWithin(new GeoJsonPolygon(points), limit, cursor);
+    }
+
+    /**
+     * Customers inside a viewport, in id order, {@code limit} per page. The box is queried as a polygon so the 2dsphere
+     * index serves it; its edges are geodesics, which for viewports of a few degrees matches the rectangle closely.
+     */
+    public CursorPageResponse<CustomerResponse> findWithinBox(double minLat, double minLng, double maxLat,
+            double maxLng, int limit, String cursor) {
+        if (minLat >= maxLat || minLng >= maxLng) {
+            throw new InvalidGeometryException();
+        }
+        return findWithin(Contact.box(minLat, minLng, maxLat, maxLng), limit, cursor);
+    }
+
+    private CursorPageResponse<CustomerResponse> findWithin(GeoJsonPolygon area, int limit, String cursor) {
+        var after = cursor == null ? null : IdCursor.decode(cursor).getId();
+        var customers = repository.findWithin(area, after, limit);
+        var next = customers.size() < limit ? null : new IdCursor(customers.get(customers.size() - 1).getId()).encode();
+        return new CursorPageResponse<>(customers.stream().map(CustomerResponse::new).collect(Collectors.toList()), next);
+    }
+
+    public List<CustomerDistanceResponse> findNearest(ObjectId id, int k) {
+        if (spatialIndex.isReady()) {
+            var point = spatialIndex.find(id).orElseGet(() -> getOrigin(getCustomerById(id)));
+            return getNeighborResponseList(spatialIndex.findNearest(point, k, id));
+        }
         var customer = getCustomerById(id);
+        return getDistanceResponseList(repository.findNear(getOrigin(customer), null, null, id, k));
+    }
 
-        var nearestCustomers = repository.findByContactNear(getPoint(customer), getDistance(maxDistanceInKm));
-        return getNearestCustomersResponseList(nearestCustomers);
+    public List<CustomerDistanceResponse> findNearest(double latitude, double longitude, int k) {
+        var point = Contact.point(latitude, longitude);
+        if (spatialIndex.isReady()) {
+            return getNeighborResponseList(spatialIndex.findNearest(point, k, null));
+        }
+        return getDistanceResponseList(repository.findNear(point, null, null, null, k));
     }
 
-    private Point getPoint(Customer customer) {
-        return new Point(customer.getContact().getCoordinates().get(0), customer.getContact().getCoordinates().get(1));
+    private List<CustomerDistanceResponse> getDistanceResponseList(List<GeoResult<Customer>> geoResults) {
+        return geoResults.stream()
+                .map(geoResult -> new CustomerDistanceResponse(geoResult.getContent(), geoResult.getDistance().getValue()))
+                .collect(Collectors.toList());
     }
 
-    private Distance getDistance(Integer maxDistanceInKm) {
-        return new Distance(maxDistanceInKm, Metrics.KILOMETERS);
+    private List<CustomerDistanceResponse> getNeighborResponseList(List<Neighbor> neighbors) {
+        return getNeighborResponseList(neighbors,
+                findAllByIdAsMap(neighbors.stream().map(Neighbor::getId).collect(Collectors.toList())));
     }
 
-    private List<CustomerDistanceResponse> getNearestCustomersResponseList(GeoResults<Customer> nearestCustomers) {
-        return nearestCustomers.getContent().stream().map(geoResult -> {
-            if (geoResult.getDistance().getValue() > 0) {
-                return new CustomerDistanceResponse(geoResult.getContent(), geoResult.getDistance().getValue());
-            }
+    private List<CustomerDistanceResponse> getNeighborResponseList(List<Neighbor> neighbors,
+            Map<ObjectId, Customer> customers) {
+        return getNeighborResponseList(neighbors, customers, CustomerDistanceResponse::new);
+    }
+
+    private <T> List<T> getNeighborResponseList(List<Neighbor> neighbors, Map<ObjectId, Customer> customers,
+            BiFunction<Customer, Double, T> response) {
+        return neighbors.stream()
+                .filter(neighbor -> customers.containsKey(neighbor.getId()))
+                .map(neighbor -> response.apply(customers.get(neighbor.getId()), neighbor.getDistance()))
+                .collect(Collectors.toList());
+    }
+
+    private String nextCursor(List<Neighbor> page, int limit) {
+        if (page.size() < limit) {
             return null;
-        }).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+        var last = page.get(page.size() - 1);
+        return new GeoNearCursor(last.getDistance(), last.getId()).encode();
+    }
+
+    private Map<ObjectId, Customer> findAllByIdAsMap(Collection<ObjectId> ids) {
+        return asMap(ids.isEmpty() ? List.of() : repository.findAllById(ids));
+    }
+
+    private static Map<ObjectId, Customer> asMap(Iterable<Customer> found) {
+        var customers = new HashMap<ObjectId, Customer>();
+        found.forEach(customer -> customers.put(customer.getId(), customer));
+        return customers;
+    }
+
+    /**
+     * A customer whose geocoding is pending or failed holds placeholder coordinates, which must not be searched from.
+     */
+    private Point getOrigin(Customer customer) {
+        if (!isGeocoded(customer)) {
+            throw new CustomerNotGeocodedException();
+        }
+        return getPoint(customer);
+    }
+
+    private static boolean isGeocoded(Customer customer) {
+        var status = customer.getContact().getStatus();
+        return status != GeocodingStatus.PENDING && status != GeocodingStatus.FAILED;
+    }
+
+    private Point getPoint(Customer customer) {
+        return new Point(customer.getContact().getCoordinates().get(0), customer.getContact().getCoordinates().get(1));
+    }
+
+    private Distance getDistance(double distanceInKm) {
+        return new Distance(distanceInKm, Metrics.KILOMETERS);
     }
 
 }
@@ -0,0 +1,169 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import br.com.portfolio.component.SpatialGrid;
+import br.com.portfolio.component.SpatialGrid.Neighbor;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GeocodingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Optional in-process copy of every geocoded customer's coordinates, answering radius queries without Mongo. Loaded
+ * on startup, kept current from the save/delete events of this node and rebuilt periodically to pick up writes made
+ * by other nodes. Until the first load completes {@link #isReady()} is {@code false} and callers query Mongo instead.
+ */
+@Service
+@Slf4j
+public class CustomerSpatialIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final double cellSize;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SpatialGrid grid;
+    private List<Customer> journal;
+    private volatile boolean ready;
+
+    public CustomerSpatialIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${local.customers.spatial-index.enabled:false}") boolean enabled,
+            @Value("${local.customers.spatial-index.cell-size:0.05}") double cellSize,
+            @Value("${local.customers.spatial-index.batch-size:5000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.cellSize = cellSize;
+        this.batchSize = batchSize;
+        this.grid = new SpatialGrid(cellSize);
+        meterRegistry.gauge("customers.spatial-index.size", this, CustomerSpatialIndex::size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds a new grid from a coordinates-only scan without blocking readers, then swaps it in. Changes seen while
+     * scanning are journaled and replayed on the new grid, so the scan cannot resurrect a deleted customer or restore
+     * old coordinates.
+     */
+    @Scheduled(fixedDelayString = "${local.customers.spatial-index.rebuild-interval:PT10M}",
+            initialDelayString = "${local.customers.spatial-index.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        write(() -> journal = new ArrayList<>());
+
+        var rebuilt = new SpatialGrid(cellSize);
+        var query = Query.query(where("contact.status").nin(GeocodingStatus.PENDING, GeocodingStatus.FAILED))
+                .cursorBatchSize(batchSize);
+        query.fields().include("contact.coordinates");
+        try (var customers = mongoTemplate.stream(query, Customer.class)) {
+            customers.forEachRemaining(customer -> apply(rebuilt, customer));
+        } catch (RuntimeException e) {
+            write(() -> journal = null);
+            throw e;
+        }
+
+        write(() -> {
+            journal.forEach(change -> apply(rebuilt, change));
+            journal = null;
+            grid = rebuilt;
+        });
+        ready = true;
+        log.info("Customer spatial index rebuilt: {}", kv("customers", size()));
+    }
+
+    public void onSave(Customer customer) {
+        if (enabled) {
+            write(() -> record(customer));
+        }
+    }
+
+    public void onDelete(ObjectId id) {
+        if (enabled) {
+            write(() -> record(Customer.builder().id(id).build()));
+        }
+    }
+
+    public Optional<Point> find(ObjectId id) {
+        return read(current -> Optional.ofNullable(current.get(id)).map(point -> new Point(point[0], point[1])));
+    }
+
+    public List<Neighbor> findWithin(Point point, double radiusKm) {
+        return read(current -> current.within(point.getX(), point.getY(), radiusKm));
+    }
+
+    public List<Neighbor> findNearest(Point point, int k, ObjectId excluded) {
+        return read(current -> current.nearest(point.getX(), point.getY(), k, excluded));
+    }
+
+    public int size() {
+        return read(SpatialGrid::size);
+    }
+
+    private void record(Customer customer) {
+        apply(grid, customer);
+        if (journal != null) {
+            journal.add(customer);
+        }
+    }
+
+    /**
+     * A customer without a resolved contact, including the id-only marker used for deletes, is removed.
+     */
+    private static void apply(SpatialGrid target, Customer customer) {
+        var contact = customer.getContact();
+        var status = contact == null ? null : contact.getStatus();
+        if (contact == null || contact.getCoordinates() == null || contact.getCoordinates().size() < 2
+                || status == GeocodingStatus.PENDING || status == GeocodingStatus.FAILED) {
+            target.remove(customer.getId());
+            return;
+        }
+        target.put(customer.getId(), contact.getCoordinates().get(0), contact.getCoordinates().get(1));
+    }
+
+    private <T> T read(Function<SpatialGrid, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(grid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable writer) {
+        lock.writeLock().lock();
+        try {
+            writer.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.domain.GeocodingStatus;
+import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class DeferredGeocodingService {
+
+    private final CustomerRepository repository;
+    private final GeoLocationService geoLocationService;
+    private final TaskExecutor executor;
+    private final TaskScheduler scheduler;
+    private final boolean enabled;
+    private final boolean fallback;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration sweepAfter;
+    private final int sweepBatchSize;
+
+    public DeferredGeocodingService(final CustomerRepository repository,
+            final GeoLocationService geoLocationService,
+            @Qualifier("geocodingExecutor") final TaskExecutor executor,
+            @Qualifier("geocodingScheduler") final TaskScheduler scheduler,
+            @Value("${local.geolocation.deferred.enabled:false}") final boolean enabled,
+            @Value("${local.geolocation.deferred.fallback:false}") final boolean fallback,
+            @Value("${local.geolocation.deferred.max-attempts:5}") final int maxAttempts,
+            @Value("${local.geolocation.deferred.initial-backoff:PT2S}") final Duration initialBackoff,
+            @Value("${local.geolocation.deferred.sweep-after:PT10M}") final Duration sweepAfter,
+            @Value("${local.geolocation.deferred.sweep-batch-size:500}") final int sweepBatchSize) {
+        this.repository = repository;
+        this.geoLocationService = geoLocationService;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.fallback = fallback;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.sweepAfter = sweepAfter;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isFallbackEnabled() {
+        return fallback;
+    }
+
+    public void enqueue(ObjectId id, String address) {
+        submit(id, address, 1);
+    }
+
+    /**
+     * Picks up customers left pending by a full queue or a restart.
+     */
+    @Scheduled(initialDelayString = "${local.geolocation.deferred.sweep-interval:PT5M}",
+            fixedDelayString = "${local.geolocation.deferred.sweep-interval:PT5M}")
+    public void sweep() {
+        if (!enabled && !fallback) {
+            return;
+        }
+        var threshold = LocalDateTime.now(ZoneOffset.UTC).minus(sweepAfter);
+        var pending = repository.findByContactStatusAndLastModifiedDateBefore(GeocodingStatus.PENDING, threshold,
+                PageRequest.of(0, sweepBatchSize));
+        pending.forEach(customer -> enqueue(customer.getId(), customer.getContact().getAddress()));
+        if (!pending.isEmpty()) {
+            log.info("Pending geocodes re-enqueued: {}", kv("customers", pending.size()));
+        }
+    }
+
+    private void submit(ObjectId id, String address, int attempt) {
+        try {
+            executor.execute(() -> geocode(id, address, attempt));
+        } catch (TaskRejectedException e) {
+            log.warn("Geocoding queue is full, customer stays pending: {}", kv("Id", id));
+        }
+    }
+
+    private void geocode(ObjectId id, String address, int attempt) {
+        try {
+            var latLong = geoLocationService.getLatLongByAddress(address);
+            if (!repository.updateCoordinates(id, address, latLong)) {
+                log.info("Customer removed or address changed before geocoding finished: {}", kv("Id", id));
+            }
+        } catch (AddressNotFoundException e) {
+            log.warn("Address not found for deferred geocoding: {}", kv("Id", id));
+            repository.updateGeocodingStatus(id, address, GeocodingStatus.FAILED);
+        } catch (RuntimeException e) {
+            retry(id, address, attempt, e);
+        }
+    }
+
+    private void retry(ObjectId id, String address, int attempt, RuntimeException cause) {
+        if (attempt >= maxAttempts) {
+            log.error("Deferred geocoding gave up: {} {}", kv("Id", id), kv("attempts", attempt), cause);
+            repository.updateGeocodingStatus(id, address, GeocodingStatus.FAILED);
+            return;
+        }
+        var backoff = initialBackoff.multipliedBy(1L << (attempt - 1));
+        log.warn("Deferred geocoding failed, retrying: {} {} {}", kv("Id", id), kv("attempt", attempt), kv("backoff", backoff));
+        scheduler.schedule(() -> submit(id, address, attempt + 1), Instant.now().plus(backoff));
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.component.DistanceMatrix;
+import br.com.portfolio.domain.payload.DistanceMatrixPayload;
+import br.com.portfolio.domain.response.DistanceMatrixResponse;
+import br.com.portfolio.domain.response.DistancePairResponse;
+import br.com.portfolio.exception.DistanceMatrixTooLargeException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class DistanceMatrixService {
+
+    private final CustomerRepository repository;
+    private final CustomerSpatialIndex spatialIndex;
+    private final ForkJoinPool pool;
+    private final int maxDense;
+    private final int maxPairs;
+
+    public DistanceMatrixService(CustomerRepository repository, CustomerSpatialIndex spatialIndex,
+            @Qualifier("distanceMatrixPool") ForkJoinPool pool,
+            @Value("${local.customers.distance-matrix.max-dense:1000}") int maxDense,
+            @Value("${local.customers.distance-matrix.max-pairs:1000000}") int maxPairs) {
+        this.repository = repository;
+        this.spatialIndex = spatialIndex;
+        this.pool = pool;
+        this.maxDense = maxDense;
+        this.maxPairs = maxPairs;
+    }
+
+    public DistanceMatrixResponse compute(DistanceMatrixPayload payload) {
+        var ids = payload.getIds().stream().map(ObjectId::new).distinct().collect(Collectors.toList());
+        var points = findPoints(ids);
+        var found = new ArrayList<String>(points.size());
+        var missing = new ArrayList<String>();
+        var xs = new double[points.size()];
+        var ys = new double[points.size()];
+        for (var id : ids) {
+            var point = points.get(id);
+            if (point == null) {
+                missing.add(id.toHexString());
+                continue;
+            }
+            xs[found.size()] = point.getX();
+            ys[found.size()] = point.getY();
+            found.add(id.toHexString());
+        }
+        log.info("Computing distance matrix: {} {} {}", kv("customers", found.size()), kv("missing", missing.size()),
+                kv("maxDistanceInKm", payload.getMaxDistanceInKm()));
+
+        var matrix = new DistanceMatrix(xs, ys);
+        if (payload.getMaxDistanceInKm() == null) {
+            if (found.size() > maxDense) {
+                throw new DistanceMatrixTooLargeException();
+            }
+            return new DistanceMatrixResponse(found, rows(matrix.dense(pool), found.size()), null, missing);
+        }
+        var pairs = matrix.within(pool, payload.getMaxDistanceInKm(), maxPairs);
+        var result = new ArrayList<DistancePairResponse>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            result.add(new DistancePairResponse(pairs.first(i), pairs.second(i), round(pairs.distance(i))));
+        }
+        return new DistanceMatrixResponse(found, null, result, missing);
+    }
+
+    private Map<ObjectId, Point> findPoints(List<ObjectId> ids) {
+        var points = new HashMap<ObjectId, Point>();
+        if (spatialIndex.isReady()) {
+            ids.forEach(id -> spatialIndex.find(id).ifPresent(point -> points.put(id, point)));
+        }
+        var missing = ids.stream().filter(id -> !points.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            repository.findCoordinatesByIdIn(missing).forEach(customer -> points.put(customer.getId(),
+                    new Point(customer.getContact().getCoordinates().get(0),
+                            customer.getContact().getCoordinates().get(1))));
+        }
+        return points;
+    }
+
+    private static double[][] rows(double[] dense, int size) {
+        var rows = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                rows[i][j] = round(dense[i * size + j]);
+            }
+        }
+        return rows;
+    }
+
+    private static double round(double distance) {
+        return Math.round(distance * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import br.com.portfolio.component.BloomFilter;
+import br.com.portfolio.domain.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class DocumentNumberService {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final int batchSize;
+    private final Counter negatives;
+    private final Counter probableHits;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+
+    public DocumentNumberService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${local.customers.document-filter.enabled:true}") boolean enabled,
+            @Value("${local.customers.document-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${local.customers.document-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${local.customers.document-filter.batch-size:5000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.batchSize = batchSize;
+        this.negatives = meterRegistry.counter("customers.document-filter.checks", "result", "negative");
+        this.probableHits = meterRegistry.counter("customers.document-filter.checks", "result", "probable");
+        this.falsePositives = meterRegistry.counter("customers.document-filter.false-positives");
+    }
+
+    /**
+     * Sizes the filter for the current collection plus headroom and fills it from a documentNumber-only scan. Saves
+     * during the scan go into the same filter, so none are lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        var count = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class)).estimatedDocumentCount();
+        var current = new BloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveProbability);
+        filter = current;
+
+        var query = query(where("deletedDate").is(null)).cursorBatchSize(batchSize);
+        query.fields().include("documentNumber").exclude("_id");
+        try (var customers = mongoTemplate.stream(query, Customer.class)) {
+            customers.forEachRemaining(customer -> {
+                if (customer.getDocumentNumber() != null) {
+                    current.put(customer.getDocumentNumber());
+                }
+            });
+        }
+        loaded = true;
+        log.info("Document number filter loaded: {} {} {}", kv("customers", count), kv("bits", current.bitSize()),
+                kv("hashes", current.hashCount()));
+    }
+
+    public void register(String documentNumber) {
+        var current = filter;
+        if (current != null && documentNumber != null) {
+            current.put(documentNumber);
+        }
+    }
+
+    public boolean mightExist(String documentNumber) {
+        var current = filter;
+        var probable = !loaded || current == null || current.mightContain(documentNumber);
+        (probable ? probableHits : negatives).increment();
+        return probable;
+    }
+
+    public Set<String> findExisting(Collection<String> documentNumbers) {
+        var candidates = documentNumbers.stream()
+                .filter(this::mightExist)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        var query = query(where("documentNumber").in(candidates).and("deletedDate").is(null));
+        query.fields().include("documentNumber").exclude("_id");
+        var existing = mongoTemplate.find(query, Customer.class).stream()
+                .map(Customer::getDocumentNumber)
+                .collect(Collectors.toSet());
+        if (loaded) {
+            falsePositives.increment(candidates.size() - existing.size());
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.portfolio.service;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.component.GeoGridCache;
+import br.com.portfolio.domain.response.GeoGridCellResponse;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import br.com.portfolio.exception.GeoGridTooLargeException;
+import br.com.portfolio.exception.InvalidGeometryException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class GeoGridService {
+
+    private final CustomerRepository repository;
+    private final GeoGridCache cache;
+    private final long maxCells;
+
+    public GeoGridService(CustomerRepository repository, GeoGridCache cache,
+            @Value("${local.customers.geo-grid.max-cells:10000}") long maxCells) {
+        this.repository = repository;
+        this.cache = cache;
+        this.maxCells = maxCells;
+    }
+
+    public List<GeoGridCellResponse> aggregate(double minLat, double minLng, double maxLat, double maxLng,
+            int precision) {
+        if (minLat >= maxLat || minLng >= maxLng) {
+            throw new InvalidGeometryException();
+        }
+        var query = GeoGridQuery.covering(precision, minLat, minLng, maxLat, maxLng);
+        if (query.getCellCount() > maxCells) {
+            throw new GeoGridTooLargeException();
+        }
+        return cache.get(query, this::load);
+    }
+
+    public void invalidate(Collection<Point> positions) {
+        cache.invalidate(positions);
+    }
+
+    private List<GeoGridCellResponse> load(GeoGridQuery query) {
+        log.info("Aggregating geo grid: {} {}", kv("precision", query.getPrecision()), kv("cells", query.getCellCount()));
+        return repository.aggregateGrid(query).stream()
+                .map(cell -> new GeoGridCellResponse(cell, query.getCellSize()))
+                .collect(Collectors.toList());
+    }
+}
@@ -2,39 +2,164 @@ package br.com.portfolio.service;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
+import br.com.portfolio.component.AddressNormalizer;
+import br.com.portfolio.component.GeocodeCache;
+import br.com.portfolio.domain.Geocode;
 import br.com.portfolio.exception.AddressNotFoundException;
-import com.google.maps.GeoApiContext;
-import com.google.maps.GeocodingApi;
-import com.google.maps.errors.ApiException;
-import com.google.maps.model.GeocodingResult;
-import com.google.maps.model.LatLng;
-import java.io.IOException;
-import java.util.Arrays;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.service.geocoder.Geocoder;
+import br.com.portfolio.service.geocoder.GeocoderGuard;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 public class GeoLocationService {
 
-    private final String geolocationKey;
+    private final List<Geocoder> localGeocoders;
+    private final List<Geocoder> remoteGeocoders;
+    private final GeocodeCache cache;
+    private final GeocodeStoreService store;
+    private final int warmUpSize;
+    private final Duration refreshAfter;
+    private final int refreshBatchSize;
+    private final Duration refreshLease;
+    private final ConcurrentMap<String, CompletableFuture<List<Double>>> pendingRequests = new ConcurrentHashMap<>();
 
-    public GeoLocationService(@Value("${local.geolocation.key}") final String geolocationKey) {
-        this.geolocationKey = geolocationKey;
+    public GeoLocationService(final List<Geocoder> geocoders,
+            final GeocoderGuard guard,
+            final GeocodeCache cache,
+            final GeocodeStoreService store,
+            @Value("${local.geolocation.store.warm-up-size:0}") final int warmUpSize,
+            @Value("${local.geolocation.store.refresh-after:P30D}") final Duration refreshAfter,
+            @Value("${local.geolocation.store.refresh-batch-size:100}") final int refreshBatchSize,
+            @Value("${local.geolocation.store.refresh-lease:PT5M}") final Duration refreshLease) {
+        this.localGeocoders = geocoders.stream().filter(Geocoder::isLocal).collect(Collectors.toList());
+        this.remoteGeocoders = geocoders.stream().filter(geocoder -> !geocoder.isLocal()).map(guard::guard)
+                .collect(Collectors.toList());
+        this.cache = cache;
+        this.store = store;
+        this.warmUpSize = warmUpSize;
+        this.refreshAfter = refreshAfter;
+        this.refreshBatchSize = refreshBatchSize;
+        this.refreshLease = refreshLease;
+        log.info("Geocoders: {} {}", kv("local", names(localGeocoders)), kv("remote", names(remoteGeocoders)));
     }
 
     public List<Double> getLatLongByAddress(String address) {
-        var context = new GeoApiContext.Builder().apiKey(geolocationKey).build();
+        return cache.get(address)
+                .or(() -> geocode(localGeocoders, address))
+                .orElseGet(() -> coalesce(address));
+    }
+
+    /**
+     * Single flight: concurrent callers for the same normalized address share the first caller's lookup, and
+     * its result or failure, instead of each going to the store and the provider.
+     */
+    private List<Double> coalesce(String address) {
+        var key = AddressNormalizer.normalize(address);
+        var request = new CompletableFuture<List<Double>>();
+        var pending = pendingRequests.putIfAbsent(key, request);
+        if (pending != null) {
+            return join(pending);
+        }
+        try {
+            request.complete(resolve(address));
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+        } finally {
+            pendingRequests.remove(key, request);
+        }
+        return join(request);
+    }
+
+    private List<Double> resolve(String address) {
+        var latLong = store.find(address).map(Geocode::getCoordinates).orElseGet(() -> requestLatLong(address));
+        cache.put(address, latLong);
+        return latLong;
+    }
+
+    private List<Double> join(CompletableFuture<List<Double>> request) {
         try {
-            GeocodingResult[] request = GeocodingApi.newRequest(context).address(address).await();
-            LatLng location = request[0].geometry.location;
-            log.info("Found custom location to be: {}", kv("location", request[0].formattedAddress));
-            return Arrays.asList(location.lat, location.lng);
-        } catch (InterruptedException | IOException | ApiException e) {
-            Thread.currentThread().interrupt();
-            throw new AddressNotFoundException();
+            return request.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpSize <= 0) {
+            return;
         }
+        var hottest = store.findHottest(warmUpSize);
+        hottest.forEach(geocode -> cache.put(geocode.getAddress(), geocode.getCoordinates()));
+        log.info("Geocode cache warmed up: {}", kv("entries", hottest.size()));
+    }
+
+    @Scheduled(initialDelayString = "${local.geolocation.store.refresh-interval:PT1H}",
+            fixedDelayString = "${local.geolocation.store.refresh-interval:PT1H}")
+    public void refreshStale() {
+        var refreshed = 0;
+        while (refreshed < refreshBatchSize) {
+            var stale = store.claimStale(refreshAfter, refreshLease);
+            if (stale.isEmpty()) {
+                break;
+            }
+            var address = stale.get().getAddress();
+            try {
+                cache.put(address, requestLatLong(address));
+            } catch (AddressNotFoundException e) {
+                log.warn("Could not refresh stale geocode: {}", kv("address", address));
+                store.postponeRefresh(stale.get());
+            } catch (GeocodingUnavailableException e) {
+                log.warn("Geocoding unavailable, stale refresh postponed");
+                break;
+            }
+            refreshed++;
+        }
+        if (refreshed > 0) {
+            log.info("Stale geocodes refreshed: {}", kv("entries", refreshed));
+        }
+    }
+
+    private List<Double> requestLatLong(String address) {
+        for (Geocoder geocoder : remoteGeocoders) {
+            var latLong = geocoder.geocode(address);
+            if (latLong.isPresent()) {
+                store.save(address, latLong.get(), geocoder.name());
+                return latLong.get();
+            }
+        }
+        throw new AddressNotFoundException();
+    }
+
+    private Optional<List<Double>> geocode(List<Geocoder> geocoders, String address) {
+        for (Geocoder geocoder : geocoders) {
+            var latLong = geocoder.geocode(address);
+            if (latLong.isPresent()) {
+                return latLong;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> names(List<Geocoder> geocoders) {
+        return geocoders.stream().map(Geocoder::name).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,72 @@
+package br.com.portfolio.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import br.com.portfolio.component.AddressNormalizer;
+import br.com.portfolio.domain.Geocode;
+import br.com.portfolio.repository.GeocodeRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeocodeStoreService {
+
+    private final GeocodeRepository repository;
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<Geocode> find(String address) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query(where("addressHash").is(AddressNormalizer.hash(address))), new Update().inc("hits", 1),
+                FindAndModifyOptions.options().returnNew(true), Geocode.class));
+    }
+
+    public void save(String address, List<Double> coordinates, String provider) {
+        var update = new Update()
+                .set("address", AddressNormalizer.normalize(address))
+                .set("coordinates", coordinates)
+                .set("provider", provider)
+                .set("resolvedDate", LocalDateTime.now(ZoneOffset.UTC))
+                .setOnInsert("hits", 0L);
+        mongoTemplate.upsert(query(where("addressHash").is(AddressNormalizer.hash(address))), update, Geocode.class);
+    }
+
+    public List<Geocode> findHottest(int size) {
+        return repository.findAll(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "hits"))).getContent();
+    }
+
+    /**
+     * Claims the most used stale entry for {@code lease}, so replicas refreshing at the same time take different
+     * entries, and an entry claimed by a node that stopped is taken again once the lease expires.
+     */
+    public Optional<Geocode> claimStale(Duration refreshAfter, Duration lease) {
+        var now = LocalDateTime.now(ZoneOffset.UTC);
+        var stale = query(where("resolvedDate").lt(now.minus(refreshAfter))
+                .orOperator(where("refreshClaimedDate").is(null), where("refreshClaimedDate").lt(now.minus(lease))))
+                .with(Sort.by(Sort.Direction.DESC, "hits"));
+        return Optional.ofNullable(mongoTemplate.findAndModify(stale, new Update().set("refreshClaimedDate", now),
+                FindAndModifyOptions.options().returnNew(true), Geocode.class));
+    }
+
+    /**
+     * Keeps the stored coordinates of an address the provider no longer resolves, and only tries it again after a
+     * full refresh period.
+     */
+    public void postponeRefresh(Geocode geocode) {
+        mongoTemplate.updateFirst(query(where("id").is(geocode.getId())),
+                new Update().set("resolvedDate", LocalDateTime.now(ZoneOffset.UTC)), Geocode.class);
+    }
+}
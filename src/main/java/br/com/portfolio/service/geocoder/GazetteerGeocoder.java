@@ -0,0 +1,134 @@
+package br.com.portfolio.service.geocoder;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.component.AddressNormalizer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gazetteer file with one {@code key;lat;lng} entry per line, where key is a street address or a postal code (CEP).
+ * Lines starting with {@code #} are ignored.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty("local.geolocation.gazetteer.path")
+@Slf4j
+public class GazetteerGeocoder implements Geocoder {
+
+    private static final Pattern POSTAL_CODE = Pattern.compile("\\b(\\d{5})-?(\\d{3})\\b");
+
+    private final String[] keys;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    public GazetteerGeocoder(@Value("${local.geolocation.gazetteer.path}") final Resource gazetteer) {
+        var entries = read(gazetteer);
+        entries.sort(Comparator.comparing(entry -> entry.key));
+
+        var unique = IntStream.range(0, entries.size())
+                .filter(i -> i == entries.size() - 1 || !entries.get(i).key.equals(entries.get(i + 1).key))
+                .mapToObj(entries::get)
+                .toArray(Entry[]::new);
+        keys = new String[unique.length];
+        latitudes = new double[unique.length];
+        longitudes = new double[unique.length];
+        for (int i = 0; i < unique.length; i++) {
+            keys[i] = unique[i].key;
+            latitudes[i] = unique[i].lat;
+            longitudes[i] = unique[i].lng;
+        }
+        log.info("Gazetteer loaded: {} {}", kv("source", gazetteer.getDescription()), kv("entries", keys.length));
+    }
+
+    @Override
+    public String name() {
+        return "gazetteer";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Optional<List<Double>> geocode(String address) {
+        var found = lookup(AddressNormalizer.normalize(address));
+        if (found.isEmpty()) {
+            var postalCode = POSTAL_CODE.matcher(address == null ? "" : address);
+            if (postalCode.find()) {
+                found = lookup(postalCode.group(1) + postalCode.group(2));
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private Optional<List<Double>> lookup(String key) {
+        var index = Arrays.binarySearch(keys, key);
+        return index < 0 ? Optional.empty() : Optional.of(List.of(latitudes[index], longitudes[index]));
+    }
+
+    private static List<Entry> read(Resource gazetteer) {
+        var entries = new ArrayList<Entry>();
+        try (var reader = new BufferedReader(new InputStreamReader(gazetteer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                var columns = line.split(";");
+                if (columns.length != 3) {
+                    log.warn("Skipping malformed gazetteer line: {}", kv("line", line));
+                    continue;
+                }
+                entries.add(new Entry(key(columns[0]), Double.parseDouble(columns[1].trim()),
+                        Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read gazetteer " + gazetteer.getDescription(), e);
+        }
+        return entries;
+    }
+
+    private static String key(String column) {
+        var postalCode = POSTAL_CODE.matcher(column.trim());
+        if (postalCode.matches()) {
+            return postalCode.group(1) + postalCode.group(2);
+        }
+        return AddressNormalizer.normalize(column);
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final double lat;
+        private final double lng;
+
+        private Entry(String key, double lat, double lng) {
+            this.key = key;
+            this.lat = lat;
+            this.lng = lng;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.portfolio.service.geocoder;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface Geocoder {
+
+    String name();
+
+    Optional<List<Double>> geocode(String address);
+
+    /**
+     * Local geocoders answer from memory, so their results are neither looked up in nor written to the geocode store.
+     */
+    default boolean isLocal() {
+        return false;
+    }
+}
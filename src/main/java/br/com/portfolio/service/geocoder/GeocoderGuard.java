@@ -0,0 +1,67 @@
+package br.com.portfolio.service.geocoder;
+
+import br.com.portfolio.component.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GeocoderGuard {
+
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final MeterRegistry registry;
+    private final Duration timeout;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Hedging hedging;
+
+    public GeocoderGuard(@Qualifier("geocodingCallExecutor") final Executor executor,
+            @Qualifier("geocodingScheduler") final TaskScheduler scheduler,
+            final MeterRegistry registry,
+            @Value("${local.geolocation.resilience.timeout:PT3S}") final Duration timeout,
+            @Value("${local.geolocation.resilience.circuit.window-size:50}") final int windowSize,
+            @Value("${local.geolocation.resilience.circuit.minimum-calls:20}") final int minimumCalls,
+            @Value("${local.geolocation.resilience.circuit.failure-rate-threshold:50}") final int failureRateThreshold,
+            @Value("${local.geolocation.resilience.circuit.open-duration:PT30S}") final Duration openDuration,
+            @Value("${local.geolocation.resilience.circuit.half-open-calls:5}") final int halfOpenCalls,
+            @Value("${local.geolocation.resilience.hedge.enabled:false}") final boolean hedgeEnabled,
+            @Value("${local.geolocation.resilience.hedge.min-delay:PT0.1S}") final Duration hedgeMinDelay,
+            @Value("${local.geolocation.resilience.hedge.min-samples:20}") final int hedgeMinSamples) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.registry = registry;
+        this.timeout = timeout;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.hedging = new Hedging(hedgeEnabled, hedgeMinDelay, hedgeMinSamples);
+    }
+
+    public Geocoder guard(Geocoder geocoder) {
+        var circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration,
+                halfOpenCalls, Clock.systemUTC());
+        return new GuardedGeocoder(geocoder, circuitBreaker, executor, scheduler, timeout, hedging, registry);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class Hedging {
+
+        private final boolean enabled;
+        private final Duration minDelay;
+        private final int minSamples;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.portfolio.service.geocoder;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import com.google.maps.GeoApiContext;
+import com.google.maps.GeocodingApi;
+import com.google.maps.errors.ApiException;
+import com.google.maps.errors.InvalidRequestException;
+import com.google.maps.errors.NotFoundException;
+import com.google.maps.errors.ZeroResultsException;
+import com.google.maps.model.GeocodingResult;
+import com.google.maps.model.LatLng;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class GoogleGeocoder implements Geocoder {
+
+    private final GeoApiContext context;
+    private final Semaphore inFlight;
+    private final Duration maxWait;
+
+    public GoogleGeocoder(final GeoApiContext context,
+            @Value("${local.geolocation.client.max-in-flight:20}") final int maxInFlight,
+            @Value("${local.geolocation.client.max-wait:PT1S}") final Duration maxWait) {
+        this.context = context;
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public String name() {
+        return "google";
+    }
+
+    @Override
+    public Optional<List<Double>> geocode(String address) {
+        acquire();
+        try {
+            GeocodingResult[] request = GeocodingApi.newRequest(context).address(address).await();
+            if (request.length == 0) {
+                return Optional.empty();
+            }
+            LatLng location = request[0].geometry.location;
+            log.info("Found custom location to be: {}", kv("location", request[0].formattedAddress));
+            return Optional.of(Arrays.asList(location.lat, location.lng));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeocodingUnavailableException();
+        } catch (ZeroResultsException | NotFoundException e) {
+            return Optional.empty();
+        } catch (InvalidRequestException e) {
+            throw new AddressNotFoundException();
+        } catch (IOException | ApiException e) {
+            log.warn("Geocoding provider failed: {}", kv("error", e.getMessage()));
+            throw new GeocodingUnavailableException();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!inFlight.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Geocoding bulkhead is full: {}", kv("maxWait", maxWait));
+                throw new GeocodingUnavailableException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeocodingUnavailableException();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.portfolio.service.geocoder;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import br.com.portfolio.component.CircuitBreaker;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+@Slf4j
+class GuardedGeocoder implements Geocoder {
+
+    private final Geocoder delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final Duration timeout;
+    private final GeocoderGuard.Hedging hedging;
+    private final LatencyWindow latencies;
+    private final Timer calls;
+    private final Counter timeouts;
+    private final Counter rejections;
+    private final Counter hedges;
+
+    GuardedGeocoder(Geocoder delegate, CircuitBreaker circuitBreaker, Executor executor, TaskScheduler scheduler,
+            Duration timeout, GeocoderGuard.Hedging hedging, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.timeout = timeout;
+        this.hedging = hedging;
+        this.latencies = new LatencyWindow(128);
+        this.calls = Timer.builder("geocoding.calls").tag("geocoder", delegate.name()).register(registry);
+        this.timeouts = Counter.builder("geocoding.timeouts").tag("geocoder", delegate.name()).register(registry);
+        this.rejections = Counter.builder("geocoding.circuit.rejections").tag("geocoder", delegate.name()).register(registry);
+        this.hedges = Counter.builder("geocoding.hedges").tag("geocoder", delegate.name()).register(registry);
+        Gauge.builder("geocoding.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .tag("geocoder", delegate.name())
+                .register(registry);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public Optional<List<Double>> geocode(String address) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejections.increment();
+            throw new GeocodingUnavailableException();
+        }
+        var start = System.nanoTime();
+        try {
+            var latLong = hedged(address).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return latLong;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            circuitBreaker.onFailure();
+            log.warn("Geocoding timed out: {} {}", kv("geocoder", delegate.name()), kv("timeout", timeout));
+            throw new GeocodingUnavailableException();
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeocodingUnavailableException();
+        } finally {
+            var elapsed = System.nanoTime() - start;
+            latencies.record(elapsed);
+            calls.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private CompletableFuture<Optional<List<Double>>> hedged(String address) {
+        var result = new CompletableFuture<Optional<List<Double>>>();
+        var outstanding = new AtomicInteger(1);
+        attempt(address, result, outstanding);
+        hedgeDelay().ifPresent(delay -> scheduler.schedule(() -> {
+            if (!result.isDone()) {
+                hedges.increment();
+                outstanding.incrementAndGet();
+                attempt(address, result, outstanding);
+            }
+        }, Instant.now().plus(delay)));
+        return result;
+    }
+
+    private void attempt(String address, CompletableFuture<Optional<List<Double>>> result, AtomicInteger outstanding) {
+        try {
+            CompletableFuture.supplyAsync(() -> delegate.geocode(address), executor).whenComplete((latLong, error) -> {
+                if (error == null) {
+                    result.complete(latLong);
+                } else if (outstanding.decrementAndGet() == 0) {
+                    result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(new GeocodingUnavailableException());
+            }
+        }
+    }
+
+    private Optional<Duration> hedgeDelay() {
+        if (!hedging.isEnabled() || latencies.size() < hedging.getMinSamples()) {
+            return Optional.empty();
+        }
+        var p95 = Duration.ofNanos(latencies.percentile(0.95));
+        return Optional.of(p95.compareTo(hedging.getMinDelay()) < 0 ? hedging.getMinDelay() : p95);
+    }
+
+    /**
+     * Provider outages count against the breaker; an answer such as "address not found" means the provider is healthy.
+     */
+    private RuntimeException failure(Throwable cause) {
+        if (cause instanceof GeocodingUnavailableException) {
+            circuitBreaker.onFailure();
+            return (GeocodingUnavailableException) cause;
+        }
+        circuitBreaker.onSuccess();
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new GeocodingUnavailableException();
+    }
+
+    static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long percentile(double percentile) {
+            var sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+}
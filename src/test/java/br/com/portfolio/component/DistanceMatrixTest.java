@@ -0,0 +1,70 @@
+package br.com.portfolio.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.portfolio.exception.DistanceMatrixTooLargeException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DistanceMatrixTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void afterEach() {
+        pool.shutdown();
+    }
+
+    @Test
+    void denseIsSymmetricAndAgreesWithSpatialGrid() {
+        var random = new Random(7);
+        var xs = new double[100];
+        var ys = new double[100];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = -47 + random.nextDouble() * 4;
+            ys[i] = -24 + random.nextDouble() * 2;
+        }
+
+        var dense = new DistanceMatrix(xs, ys).dense(pool);
+
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(0, dense[i * xs.length + i]);
+            for (int j = 0; j < xs.length; j++) {
+                assertEquals(dense[i * xs.length + j], dense[j * xs.length + i]);
+                assertEquals(SpatialGrid.distance(xs[i], ys[i], xs[j], ys[j]), dense[i * xs.length + j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void withinReturnsEachClosePairOnceInRowOrder() {
+        var xs = new double[]{-46.6544, -43.1729, -46.6388, -46.6544};
+        var ys = new double[]{-23.5629, -22.9068, -23.5705, -23.5629};
+
+        var pairs = new DistanceMatrix(xs, ys).within(pool, 5, 10);
+
+        assertEquals(3, pairs.size());
+        assertEquals(0, pairs.first(0));
+        assertEquals(2, pairs.second(0));
+        assertEquals(0, pairs.first(1));
+        assertEquals(3, pairs.second(1));
+        assertEquals(0, pairs.distance(1));
+        assertEquals(2, pairs.first(2));
+        assertEquals(3, pairs.second(2));
+        assertTrue(pairs.distance(0) > 1 && pairs.distance(0) < 2);
+    }
+
+    @Test
+    void withinFailsOnceTooManyPairsAreFound() {
+        var xs = new double[200];
+        var ys = new double[200];
+
+        var matrix = new DistanceMatrix(xs, ys);
+
+        assertThrows(DistanceMatrixTooLargeException.class, () -> matrix.within(pool, 1, 1000));
+    }
+}
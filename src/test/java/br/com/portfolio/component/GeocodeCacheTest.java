@@ -0,0 +1,41 @@
+package br.com.portfolio.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GeocodeCacheTest {
+
+    private final List<Double> latLong = List.of(-23.530044, -46.7281788);
+    private GeocodeCache cache;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new GeocodeCache(10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getWithNormalizedAddressHit() {
+        cache.put("Rua Vergueiro, 777", latLong);
+
+        assertEquals(latLong, cache.get("  rua   vergueiro , 777 ").orElseThrow());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void getWithAccentVariantHit() {
+        cache.put("Avenida São João, 100", latLong);
+
+        assertEquals(latLong, cache.get("avenida sao joao, 100").orElseThrow());
+    }
+
+    @Test
+    void getWithUnknownAddressMiss() {
+        assertTrue(cache.get("Rua Vergueiro, 778").isEmpty());
+        assertEquals(1, cache.stats().missCount());
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.portfolio.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.portfolio.component.SpatialGrid.Neighbor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpatialGridTest {
+
+    private final ObjectId paulista = new ObjectId();
+    private final ObjectId vergueiro = new ObjectId();
+    private final ObjectId rio = new ObjectId();
+    private SpatialGrid grid;
+
+    @BeforeEach
+    public void beforeEach() {
+        grid = new SpatialGrid(0.05);
+        grid.put(paulista, -46.6544, -23.5629);
+        grid.put(vergueiro, -46.6388, -23.5705);
+        grid.put(rio, -43.1729, -22.9068);
+    }
+
+    @Test
+    void withinNearestFirst() {
+        var result = grid.within(-46.6544, -23.5629, 10);
+
+        assertEquals(List.of(paulista, vergueiro), ids(result));
+        assertEquals(0, result.get(0).getDistance(), 1e-9);
+        assertEquals(1.8, result.get(1).getDistance(), 0.1);
+    }
+
+    @Test
+    void withinAfterMoveAndRemove() {
+        grid.put(vergueiro, -43.18, -22.91);
+        grid.remove(rio);
+
+        assertEquals(List.of(paulista), ids(grid.within(-46.6544, -23.5629, 10)));
+        assertEquals(List.of(vergueiro), ids(grid.within(-43.1729, -22.9068, 10)));
+        assertNull(grid.get(rio));
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    void withinMatchesBruteForce() {
+        grid = new SpatialGrid(0.05);
+        var random = new Random(42);
+        var points = new ArrayList<double[]>();
+        var ids = new ArrayList<ObjectId>();
+        for (int i = 0; i < 2_000; i++) {
+            var point = new double[]{-47 + random.nextDouble() * 2, -24 + random.nextDouble() * 2};
+            var id = new ObjectId();
+            points.add(point);
+            ids.add(id);
+            grid.put(id, point[0], point[1]);
+        }
+
+        var expected = new ArrayList<Neighbor>();
+        for (int i = 0; i < points.size(); i++) {
+            var distance = SpatialGrid.distance(-46.5, -23.5, points.get(i)[0], points.get(i)[1]);
+            if (distance <= 25) {
+                expected.add(new Neighbor(ids.get(i), distance));
+            }
+        }
+        expected.sort(Comparator.comparingDouble(Neighbor::getDistance));
+
+        var result = grid.within(-46.5, -23.5, 25);
+        assertTrue(result.size() > 0);
+        assertEquals(ids(expected), ids(result));
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        grid = new SpatialGrid(0.05);
+        var random = new Random(7);
+        var points = new ArrayList<double[]>();
+        var ids = new ArrayList<ObjectId>();
+        for (int i = 0; i < 2_000; i++) {
+            var point = new double[]{-47 + random.nextDouble() * 2, -24 + random.nextDouble() * 2};
+            var id = new ObjectId();
+            points.add(point);
+            ids.add(id);
+            grid.put(id, point[0], point[1]);
+        }
+
+        var expected = new ArrayList<Neighbor>();
+        for (int i = 1; i < points.size(); i++) {
+            expected.add(new Neighbor(ids.get(i), SpatialGrid.distance(points.get(0)[0], points.get(0)[1],
+                    points.get(i)[0], points.get(i)[1])));
+        }
+        expected.sort(Comparator.comparingDouble(Neighbor::getDistance));
+
+        var result = grid.nearest(points.get(0)[0], points.get(0)[1], 25, ids.get(0));
+        assertEquals(ids(expected.subList(0, 25)), ids(result));
+    }
+
+    @Test
+    void nearestWithFewerPointsThanK() {
+        var result = grid.nearest(-46.6544, -23.5629, 10, paulista);
+
+        assertEquals(List.of(vergueiro, rio), ids(result));
+    }
+
+    private static List<ObjectId> ids(List<Neighbor> neighbors) {
+        return neighbors.stream().map(Neighbor::getId).collect(Collectors.toList());
+    }
+}
@@ -3,7 +3,10 @@ package br.com.portfolio.controller;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -12,25 +15,62 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import br.com.portfolio.api.CustomerApi;
 import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.CustomerTombstone;
+import br.com.portfolio.domain.GenderEnum;
+import br.com.portfolio.domain.payload.CoordinatePayload;
+import br.com.portfolio.domain.payload.CreateCustomerBatchPayload;
 import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.payload.DistanceMatrixPayload;
+import br.com.portfolio.domain.payload.GeoBatchPayload;
+import br.com.portfolio.domain.payload.GeoPolygonPayload;
+import br.com.portfolio.domain.payload.PatchCustomerPayload;
 import br.com.portfolio.domain.payload.UpdateCustomerPayload;
+import br.com.portfolio.domain.response.CursorPageResponse;
+import br.com.portfolio.domain.response.CustomerBatchItemResponse;
+import br.com.portfolio.domain.response.CustomerBatchResponse;
+import br.com.portfolio.domain.response.CustomerChangesResponse;
+import br.com.portfolio.domain.response.CustomerCompactDistanceResponse;
 import br.com.portfolio.domain.response.CustomerDistanceResponse;
+import br.com.portfolio.domain.response.CustomerExportResponse;
 import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.response.CustomerTombstoneResponse;
+import br.com.portfolio.domain.response.DistanceMatrixResponse;
+import br.com.portfolio.domain.response.DistancePairResponse;
+import br.com.portfolio.domain.response.ErrorResponse;
+import br.com.portfolio.domain.response.GeoGridCellResponse;
+import br.com.portfolio.domain.search.CountMode;
 import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoGridCell;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import br.com.portfolio.exception.ChangesTokenExpiredException;
 import br.com.portfolio.exception.CustomerAlreadyExistsException;
 import br.com.portfolio.exception.CustomerNotFoundException;
+import br.com.portfolio.exception.GeoGridTooLargeException;
+import br.com.portfolio.exception.InvalidGeometryException;
 import br.com.portfolio.exception.handler.ExceptionHandlerController;
 import br.com.portfolio.helper.MockGenerator;
 import br.com.portfolio.helper.TestMessageSource;
+import br.com.portfolio.service.CustomerBatchService;
+import br.com.portfolio.service.CustomerChangesService;
+import br.com.portfolio.service.CustomerExportService;
 import br.com.portfolio.service.CustomerService;
+import br.com.portfolio.service.DistanceMatrixService;
+import br.com.portfolio.service.GeoGridService;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,7 +85,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -61,6 +104,16 @@ class CustomerControllerTest {
     private final ObjectId id = new ObjectId();
     @MockBean
     private CustomerService service;
+    @MockBean
+    private GeoGridService geoGridService;
+    @MockBean
+    private DistanceMatrixService distanceMatrixService;
+    @MockBean
+    private CustomerExportService exportService;
+    @MockBean
+    private CustomerChangesService changesService;
+    @MockBean
+    private CustomerBatchService batchService;
     private CreateCustomerPayload createCustomerPayload;
     private UpdateCustomerPayload updateCustomerPayload;
     private MockMvc mockMvc;
@@ -78,14 +131,15 @@ class CustomerControllerTest {
         customerDistanceResponse = new CustomerDistanceResponse(customer, 200);
 
         if (mockMvc == null) {
-            mockMvc = MockMvcBuilders.standaloneSetup(new CustomerController(service))
+            mockMvc = MockMvcBuilders.standaloneSetup(new CustomerController(service, geoGridService,
+                            distanceMatrixService, exportService, changesService, batchService))
                     .setControllerAdvice(new ExceptionHandlerController(new TestMessageSource("Product Test")))
                     .setMessageConverters(mockGenerator.getHttpMessageConverter())
                     .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                     .build();
         }
 
-        reset(service);
+        reset(service, geoGridService, distanceMatrixService, exportService, changesService, batchService);
     }
 
     @Test
@@ -110,6 +164,33 @@ class CustomerControllerTest {
         verify(service).create(any());
     }
 
+    @Test
+    void createBatchWithSuccessStatusCode200() throws Exception {
+        var payload = new CreateCustomerBatchPayload(List.of(createCustomerPayload, createCustomerPayload));
+        when(batchService.create(payload)).thenReturn(new CustomerBatchResponse(List.of(
+                CustomerBatchItemResponse.created(0, customerResponse),
+                CustomerBatchItemResponse.failed(1, HttpStatus.CONFLICT, List.of(ErrorResponse.as("Duplicated"))))));
+
+        mockMvc.perform(post(BASE_URL.concat("batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is(201)))
+                .andExpect(jsonPath("$.items[0].customer.id", is(customerResponse.getId())))
+                .andExpect(jsonPath("$.items[1].status", is(409)))
+                .andExpect(jsonPath("$.items[1].errors[0].errorDescription", is("Duplicated")));
+    }
+
+    @Test
+    void createBatchWithErrorEmptyBatchStatusCode400() throws Exception {
+        mockMvc.perform(post(BASE_URL.concat("batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(new CreateCustomerBatchPayload(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(batchService, never()).create(any());
+    }
+
     @Test
     void testCreateWithInvalidPayloadStatusCode400() throws Exception {
         mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content("{aa:bb}"))
@@ -130,6 +211,20 @@ class CustomerControllerTest {
         verify(service).update(id, updateCustomerPayload);
     }
 
+    @Test
+    void testPatchWithSuccessStatusCode202() throws Exception {
+        var payload = new PatchCustomerPayload();
+        payload.setNickname("newNick");
+        when(service.patch(id, payload)).thenReturn(customerResponse);
+
+        assertResult(
+                mockMvc.perform(
+                                patch(BASE_URL.concat(id.toString())).contentType(MediaType.APPLICATION_JSON).content(mockGenerator.asString(payload)))
+                        .andExpect(status().isAccepted()));
+
+        verify(service).patch(id, payload);
+    }
+
     @Test
     void testUpdateWithErrorCustomerNotFoundExceptionStatusCode404() throws Exception {
         when(service.update(id, updateCustomerPayload)).thenThrow(new CustomerNotFoundException());
@@ -203,12 +298,106 @@ class CustomerControllerTest {
         verify(service, never()).delete(any());
     }
 
+    @Test
+    void findAllByCursorWithSuccessStatusCode200() throws Exception {
+        var params = CustomerSearchParams.builder().name("Test").build();
+        when(service.findAll(params, "documentNumber", Sort.Direction.ASC, 10, "abc"))
+                .thenReturn(new CursorPageResponse<>(List.of(new CustomerResponse(customer)), "def"));
+
+        mockMvc.perform(get(BASE_URL).queryParam("paging", "cursor").queryParam("sortBy", "documentNumber")
+                        .queryParam("direction", "ASC").queryParam("limit", "10").queryParam("cursor", "abc")
+                        .queryParam("name", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CustomerApi.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(jsonPath("$.[0].name", is(customer.getName())));
+
+        verify(service, never()).findAll(any(Pageable.class), any(), any());
+    }
+
+    @Test
+    void findAllByCursorWithErrorInvalidDirectionStatusCode400() throws Exception {
+        mockMvc.perform(get(BASE_URL).queryParam("paging", "cursor").queryParam("direction", "sideways"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).findAll(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void findAllWithEstimatedCountStatusCode200() throws Exception {
+        var page = new PageImpl<>(List.of(new CustomerResponse(customer)), PageRequest.of(0, 10), 5000);
+        when(service.findAll(any(Pageable.class), any(CustomerSearchParams.class), eq(CountMode.ESTIMATED)))
+                .thenReturn(page);
+
+        mockMvc.perform(get(BASE_URL).queryParam("count", "ESTIMATED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(5000)));
+    }
+
+    @Test
+    void findSliceWithSuccessStatusCode200() throws Exception {
+        var slice = new SliceImpl<>(List.of(new CustomerResponse(customer)), PageRequest.of(0, 1), true);
+        when(service.findSlice(any(Pageable.class), any(CustomerSearchParams.class))).thenReturn(slice);
+
+        mockMvc.perform(get(BASE_URL).queryParam("paging", "slice").queryParam("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(customer.getName())))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service, never()).findAll(any(Pageable.class), any(), any());
+    }
+
+    @Test
+    void exportWithSuccessStatusCode200() throws Exception {
+        var since = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(eq(since), any());
+
+        mockMvc.perform(get(BASE_URL.concat("export")).queryParam("modifiedSince", "2024-01-31T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CustomerApi.NDJSON_VALUE))
+                .andExpect(content().string("{\"id\":\"1\"}\n"));
+    }
+
+    @Test
+    void exportWithErrorInvalidModifiedSinceStatusCode400() throws Exception {
+        mockMvc.perform(get(BASE_URL.concat("export")).queryParam("modifiedSince", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(exportService, never()).export(any(), any());
+    }
+
+    @Test
+    void findChangesWithSuccessStatusCode200() throws Exception {
+        var tombstone = new CustomerTombstone(id, LocalDateTime.of(2024, 2, 1, 10, 0));
+        when(changesService.findChanges("abc", null, 500)).thenReturn(new CustomerChangesResponse(
+                List.of(new CustomerExportResponse(customer)), List.of(new CustomerTombstoneResponse(tombstone)),
+                "def", false));
+
+        mockMvc.perform(get(BASE_URL.concat("changes")).queryParam("token", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modified[0].name", is(customer.getName())))
+                .andExpect(jsonPath("$.deleted[0].id", is(id.toHexString())))
+                .andExpect(jsonPath("$.token", is("def")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void findChangesWithErrorChangesTokenExpiredExceptionStatusCode410() throws Exception {
+        when(changesService.findChanges("abc", null, 500)).thenThrow(new ChangesTokenExpiredException());
+
+        mockMvc.perform(get(BASE_URL.concat("changes")).queryParam("token", "abc"))
+                .andExpect(status().isGone());
+    }
+
     @Test
     void findAllWithSuccessStatusCode200() throws Exception {
         final Pageable pageable = PageRequest.of(0, 10);
         final Page<CustomerResponse> page = new PageImpl<>(List.of(new CustomerResponse(customer)), pageable, Integer.MAX_VALUE);
 
-        given(service.findAll(any(Pageable.class), any(CustomerSearchParams.class))).willReturn(page);
+        given(service.findAll(any(Pageable.class), any(CustomerSearchParams.class), eq(CountMode.EXACT))).willReturn(page);
 
         final CustomerSearchParams params = CustomerSearchParams.builder()
                 .name("Test")
@@ -234,7 +423,7 @@ class CustomerControllerTest {
         final ArgumentCaptor<CustomerSearchParams> searchParamsCaptor = ArgumentCaptor.forClass(CustomerSearchParams.class);
         final ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
 
-        verify(service, Mockito.times(1)).findAll(pageableCaptor.capture(), searchParamsCaptor.capture());
+        verify(service, Mockito.times(1)).findAll(pageableCaptor.capture(), searchParamsCaptor.capture(), eq(CountMode.EXACT));
 
         final CustomerSearchParams searchParam = searchParamsCaptor.getValue();
         assertEquals(params.getName(), searchParam.getName());
@@ -247,7 +436,8 @@ class CustomerControllerTest {
 
     @Test
     void findByLocationNearWithSuccessStatusCode200() throws Exception {
-        when(service.findByLocationNear(200, id)).thenReturn(List.of(customerDistanceResponse));
+        when(service.findByLocationNear(200, id, 100, null, new GeoSearchParams()))
+                .thenReturn(new CursorPageResponse<>(List.of(customerDistanceResponse), null));
 
         mockMvc.perform(
                         get(BASE_URL.concat("geo/").concat(id.toString())).contentType(MediaType.APPLICATION_JSON)
@@ -260,21 +450,182 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.[0].email", is(customerResponse.getEmail())))
                 .andExpect(jsonPath("$.[0].birthDate", is(customerResponse.getBirthDate().toString())))
                 .andExpect(jsonPath("$.[0].documentNumber", is(customerResponse.getDocumentNumber())))
-                .andExpect(jsonPath("$.length()", is(1)));
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(header().doesNotExist(CustomerApi.NEXT_CURSOR_HEADER));
 
-        verify(service).findByLocationNear(200, id);
+        verify(service).findByLocationNear(200, id, 100, null, new GeoSearchParams());
+    }
+
+    @Test
+    void findByLocationNearWithNextCursorHeader() throws Exception {
+        when(service.findByLocationNear(200, id, 1, "cursor", new GeoSearchParams()))
+                .thenReturn(new CursorPageResponse<>(List.of(customerDistanceResponse), "next"));
+
+        mockMvc.perform(
+                        get(BASE_URL.concat("geo/").concat(id.toString())).contentType(MediaType.APPLICATION_JSON)
+                                .queryParam("maxDistanceInKm", "200")
+                                .queryParam("limit", "1")
+                                .queryParam("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(header().string(CustomerApi.NEXT_CURSOR_HEADER, "next"));
     }
 
     @Test
     void findByLocationNearWithErrorCustomerNotFoundExceptionStatusCode404() throws Exception {
-        when(service.findByLocationNear(200, id)).thenThrow(new CustomerNotFoundException());
+        when(service.findByLocationNear(200, id, 100, null, new GeoSearchParams())).thenThrow(new CustomerNotFoundException());
 
         mockMvc.perform(
                         get(BASE_URL.concat("geo/").concat(id.toString())).contentType(MediaType.APPLICATION_JSON)
                                 .queryParam("maxDistanceInKm", "200"))
                 .andExpect(status().isNotFound());
 
-        verify(service).findByLocationNear(200, id);
+        verify(service).findByLocationNear(200, id, 100, null, new GeoSearchParams());
+    }
+
+    @Test
+    void findByLocationNearWithFiltersStatusCode200() throws Exception {
+        var filters = GeoSearchParams.builder().name("Maria").gender(GenderEnum.FEMALE).minAge(18).maxAge(30).build();
+        when(service.findByLocationNear(200, id, 100, null, filters))
+                .thenReturn(new CursorPageResponse<>(List.of(customerDistanceResponse), null));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/").concat(id.toString())).queryParam("maxDistanceInKm", "200")
+                        .queryParam("name", "Maria").queryParam("gender", "FEMALE")
+                        .queryParam("minAge", "18").queryParam("maxAge", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)));
+
+        verify(service).findByLocationNear(200, id, 100, null, filters);
+    }
+
+    @Test
+    void findByLocationNearWithErrorInvalidAgeStatusCode400() throws Exception {
+        mockMvc.perform(get(BASE_URL.concat("geo/").concat(id.toString())).queryParam("maxDistanceInKm", "200")
+                        .queryParam("minAge", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).findByLocationNear(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void findCompactByLocationNearWithSuccessStatusCode200() throws Exception {
+        when(service.findCompactByLocationNear(200, id, 100, null, new GeoSearchParams())).thenReturn(
+                new CursorPageResponse<>(List.of(new CustomerCompactDistanceResponse(customer, 2.5)), null));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/").concat(id.toString()))
+                        .queryParam("maxDistanceInKm", "200").queryParam("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(customerResponse.getId())))
+                .andExpect(jsonPath("$.[0].name", is(customerResponse.getName())))
+                .andExpect(jsonPath("$.[0].distance", is("2.5")))
+                .andExpect(jsonPath("$.[0].email").doesNotExist());
+
+        verify(service, never()).findByLocationNear(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void findNearestByIdWithSuccessStatusCode200() throws Exception {
+        when(service.findNearest(id, 3)).thenReturn(List.of(customerDistanceResponse));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/").concat(id.toString()).concat("/nearest")).queryParam("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(customerResponse.getId())))
+                .andExpect(jsonPath("$.length()", is(1)));
+
+        verify(service).findNearest(id, 3);
+    }
+
+    @Test
+    void findNearestByCoordinateWithSuccessStatusCode200() throws Exception {
+        when(service.findNearest(-23.5, -46.6, 10)).thenReturn(List.of(customerDistanceResponse));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/nearest")).queryParam("lat", "-23.5").queryParam("lng", "-46.6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)));
+
+        verify(service).findNearest(-23.5, -46.6, 10);
+    }
+
+    @Test
+    void findByLocationNearBatchWithSuccessStatusCode200() throws Exception {
+        var payload = GeoBatchPayload.builder().ids(List.of(id.toHexString())).maxDistanceInKm(200).build();
+        when(service.findByLocationNear(payload)).thenReturn(Map.of(id.toHexString(), List.of(customerDistanceResponse)));
+
+        mockMvc.perform(post(BASE_URL.concat("geo/batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$." + id.toHexString() + "[0].id", is(customerResponse.getId())));
+
+        verify(service).findByLocationNear(payload);
+    }
+
+    @Test
+    void findWithinBoxWithSuccessStatusCode200() throws Exception {
+        when(service.findWithinBox(-23.6, -46.7, -23.5, -46.6, 100, null))
+                .thenReturn(new CursorPageResponse<>(List.of(customerResponse), "next"));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/box")).queryParam("minLat", "-23.6").queryParam("minLng", "-46.7")
+                        .queryParam("maxLat", "-23.5").queryParam("maxLng", "-46.6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(customerResponse.getId())))
+                .andExpect(header().string(CustomerApi.NEXT_CURSOR_HEADER, "next"));
+    }
+
+    @Test
+    void findWithinWithErrorInvalidGeometryExceptionStatusCode400() throws Exception {
+        var payload = GeoPolygonPayload.builder().vertices(List.of(new CoordinatePayload(-23.5, -46.7),
+                new CoordinatePayload(-23.5, -46.6), new CoordinatePayload(-23.5, -46.7))).build();
+        when(service.findWithin(payload, 100, null)).thenThrow(new InvalidGeometryException());
+
+        mockMvc.perform(post(BASE_URL.concat("geo/within")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(payload)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void aggregateGridWithSuccessStatusCode200() throws Exception {
+        var cell = new GeoGridCellResponse(new GeoGridCell(-4, -5, 3, -23.55, -46.63), 5.625);
+        when(geoGridService.aggregate(-24.0, -47.0, -23.0, -46.0, 6)).thenReturn(List.of(cell));
+
+        mockMvc.perform(get(BASE_URL.concat("geo/grid")).queryParam("minLat", "-24").queryParam("minLng", "-47")
+                        .queryParam("maxLat", "-23").queryParam("maxLng", "-46").queryParam("precision", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].count", is(3)))
+                .andExpect(jsonPath("$.[0].minLat", is(-22.5)));
+    }
+
+    @Test
+    void aggregateGridWithErrorGeoGridTooLargeExceptionStatusCode400() throws Exception {
+        when(geoGridService.aggregate(-90.0, -180.0, 90.0, 180.0, 20)).thenThrow(new GeoGridTooLargeException());
+
+        mockMvc.perform(get(BASE_URL.concat("geo/grid")).queryParam("minLat", "-90").queryParam("minLng", "-180")
+                        .queryParam("maxLat", "90").queryParam("maxLng", "180").queryParam("precision", "20"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void computeDistanceMatrixWithSuccessStatusCode200() throws Exception {
+        var payload = DistanceMatrixPayload.builder().ids(List.of(id.toHexString())).maxDistanceInKm(5.0).build();
+        var response = new DistanceMatrixResponse(List.of(id.toHexString()), null,
+                List.of(new DistancePairResponse(0, 1, 1.826)), List.of());
+        when(distanceMatrixService.compute(payload)).thenReturn(response);
+
+        mockMvc.perform(post(BASE_URL.concat("geo/matrix")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]", is(id.toHexString())))
+                .andExpect(jsonPath("$.pairs[0].distance", is(1.826)));
+    }
+
+    @Test
+    void computeDistanceMatrixWithErrorInvalidIdStatusCode400() throws Exception {
+        var payload = DistanceMatrixPayload.builder().ids(List.of("123456")).build();
+
+        mockMvc.perform(post(BASE_URL.concat("geo/matrix")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mockGenerator.asString(payload)))
+                .andExpect(status().isBadRequest());
+
+        verify(distanceMatrixService, never()).compute(any());
     }
 
     @Test
@@ -10,7 +10,15 @@ import br.com.portfolio.domain.Customer;
 import br.com.portfolio.domain.CustomerElastic;
 import br.com.portfolio.helper.MockGenerator;
 import br.com.portfolio.repository.CustomerElasticRepository;
+import br.com.portfolio.service.CustomerSpatialIndex;
+import br.com.portfolio.service.DocumentNumberService;
+import br.com.portfolio.service.GeoGridService;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -21,6 +29,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -33,6 +43,12 @@ class CustomerDomainListenerTest {
     static MockGenerator mockGenerator = MockGenerator.instance();
     @Mock
     CustomerElasticRepository repository;
+    @Mock
+    DocumentNumberService documentNumberService;
+    @Mock
+    CustomerSpatialIndex spatialIndex;
+    @Mock
+    GeoGridService geoGridService;
     @InjectMocks
     private CustomerDomainListener listener;
     private Customer customer;
@@ -44,7 +60,7 @@ class CustomerDomainListenerTest {
 
         customer = mockGenerator.generateFromJson("customer").as(Customer.class);
         customerElastic = buildCustomerElastic(customer);
-        reset(repository);
+        reset(repository, documentNumberService, spatialIndex, geoGridService);
     }
 
     @Test
@@ -56,10 +72,59 @@ class CustomerDomainListenerTest {
         final var captor = ArgumentCaptor.forClass(CustomerElastic.class);
 
         verify(repository).save(captor.capture());
+        verify(documentNumberService).register(customer.getDocumentNumber());
+        verify(spatialIndex).onSave(customer);
+        verify(geoGridService).invalidate(List.of(new Point(-23.530044, -46.7281788)));
         assertResult(captor.getValue());
         assertNotNull(event);
     }
 
+    @Test
+    void onAfterSaveOfMovedCustomerEvictsBothPositions() {
+        var previous = new Point(-22.9, -43.2);
+        when(spatialIndex.find(customer.getId())).thenReturn(Optional.of(previous));
+
+        listener.onAfterSave(new AfterSaveEvent<>(customer, null, null));
+
+        verify(geoGridService).invalidate(List.of(previous, new Point(-23.530044, -46.7281788)));
+    }
+
+    @Test
+    void onAfterSaveOfUnmovedCustomerEvictsNothing() {
+        when(spatialIndex.find(customer.getId())).thenReturn(Optional.of(new Point(-23.530044, -46.7281788)));
+
+        listener.onAfterSave(new AfterSaveEvent<>(customer, null, null));
+
+        verify(geoGridService).invalidate(List.of());
+    }
+
+    @Test
+    void onAfterDeleteEvictsIndexedPosition() {
+        var previous = new Point(-22.9, -43.2);
+        when(spatialIndex.find(customer.getId())).thenReturn(Optional.of(previous));
+
+        listener.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", customer.getId()), Customer.class, "customers"));
+
+        verify(spatialIndex).onDelete(customer.getId());
+        verify(geoGridService).invalidate(List.of(previous));
+    }
+
+    @Test
+    void onCustomersInsertedSavesAllInOneElasticRequest() {
+        var other = mockGenerator.generateFromJson("customer").as(Customer.class);
+        other.setId(new ObjectId());
+        other.setDocumentNumber("12345678909");
+
+        listener.onCustomersInserted(new CustomersInsertedEvent(List.of(customer, other)));
+
+        verify(repository).saveAll(List.of(customerElastic, buildCustomerElastic(other)));
+        verify(documentNumberService).register(customer.getDocumentNumber());
+        verify(documentNumberService).register(other.getDocumentNumber());
+        verify(spatialIndex).onSave(customer);
+        verify(spatialIndex).onSave(other);
+        verify(geoGridService).invalidate(Set.of(new Point(-23.530044, -46.7281788)));
+    }
+
     public void assertResult(CustomerElastic result) {
         assertNotNull(result);
         assertEquals(result.getId(), customer.getId().toHexString());
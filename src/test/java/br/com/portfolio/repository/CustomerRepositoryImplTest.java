@@ -0,0 +1,190 @@
+package br.com.portfolio.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.search.GeoGridCell;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import br.com.portfolio.domain.search.GeoNearCursor;
+import br.com.portfolio.events.CustomersInsertedEvent;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.result.UpdateResult;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+class CustomerRepositoryImplTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoCollection<Document> collection;
+    private ApplicationEventPublisher eventPublisher;
+    private CustomerRepositoryImpl repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void beforeEach() {
+        mongoTemplate = mock(MongoTemplate.class);
+        collection = mock(MongoCollection.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        repository = new CustomerRepositoryImpl(mongoTemplate, eventPublisher);
+        var converter = mock(MongoConverter.class);
+        when(converter.read(eq(Customer.class), any(Document.class))).thenAnswer(
+                invocation -> Customer.builder().id(invocation.<Document>getArgument(1).getObjectId("_id")).build());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.execute(eq(Customer.class), any(CollectionCallback.class))).thenAnswer(
+                invocation -> invocation.<CollectionCallback<?>>getArgument(1).doInCollection(collection));
+    }
+
+    @Test
+    void insertAllReportsEachFailureAndPublishesTheStoredCustomers() {
+        var customers = List.of(customer("38372550000"), customer("12345678909"), customer("98765432100"),
+                customer("11144477735"));
+        var errors = List.of(new BulkWriteError(16755, "Can't extract geo keys", new BsonDocument(), 1),
+                new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 3));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null, new ServerAddress()));
+
+        var failures = repository.insertAll(customers);
+
+        assertEquals(Map.of(1, ErrorCategory.UNCATEGORIZED, 3, ErrorCategory.DUPLICATE_KEY), failures);
+        var event = ArgumentCaptor.forClass(CustomersInsertedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(customers.get(0), customers.get(2)), event.getValue().getCustomers());
+        customers.forEach(customer -> assertNotNull(customer.getId()));
+    }
+
+    @Test
+    void insertAllPublishesEveryCustomerWhenNothingFails() {
+        var customers = List.of(customer("38372550000"), customer("12345678909"));
+
+        assertEquals(Map.of(), repository.insertAll(customers));
+
+        verify(eventPublisher).publishEvent(new CustomersInsertedEvent(customers));
+    }
+
+    @Test
+    void removeLeavesTombstoneInSingleWrite() {
+        var id = new ObjectId();
+        var query = ArgumentCaptor.forClass(Query.class);
+        var update = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.updateFirst(query.capture(), update.capture(), eq(Customer.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(repository.remove(id));
+
+        assertEquals(new Document("id", id).append("deletedDate", null), query.getValue().getQueryObject());
+        var tombstone = update.getValue().getUpdateObject();
+        assertNotNull(tombstone.get("$set", Document.class).get("deletedDate"));
+        assertTrue(tombstone.get("$unset", Document.class).keySet().containsAll(List.of("name", "contact", "email")));
+        assertFalse(tombstone.get("$unset", Document.class).containsKey("documentNumber"));
+        verify(mongoTemplate, never()).save(any());
+        var event = ArgumentCaptor.forClass(AfterDeleteEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(new Document("_id", id), event.getValue().getSource());
+    }
+
+    @Test
+    void removeOfMissingOrDeletedCustomerReturnsFalse() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Customer.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(repository.remove(new ObjectId()));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void findByIdSkipsTombstones() {
+        var id = new ObjectId();
+        var query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findOne(query.capture(), eq(Customer.class))).thenReturn(null);
+
+        assertTrue(repository.findById(id).isEmpty());
+
+        assertEquals(new Document("id", id).append("deletedDate", null), query.getValue().getQueryObject());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findNearReadsTiesAtPageBoundaryInIdOrder() {
+        var nearest = new ObjectId();
+        var tiedFirst = new ObjectId("000000000000000000000001");
+        var tiedSecond = new ObjectId("000000000000000000000002");
+        var after = new ObjectId("000000000000000000000000");
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenReturn(
+                new AggregationResults<>(List.of(near(nearest, 1.5), near(tiedSecond, 2.5), near(tiedFirst, 2.5)),
+                        new Document()),
+                new AggregationResults<>(List.of(near(tiedFirst, 2.5)), new Document()));
+
+        var page = repository.findNear(new Point(-23.5, -46.6), null, new GeoNearCursor(1.0, after), null, 2);
+
+        assertEquals(List.of(nearest, tiedFirst), page.stream().map(result -> result.getContent().getId())
+                .collect(Collectors.toList()));
+        var aggregations = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate, times(2)).aggregate(aggregations.capture(), eq(Document.class));
+        var ties = aggregations.getAllValues().get(1).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("distance", 2.5), ties.get(1).get("$match"));
+        assertEquals(new Document("_id", 1), ties.get(2).get("$sort"));
+        assertEquals(1L, ((Number) ties.get(3).get("$limit")).longValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aggregateGridIncludesWorldEdgesInLastCells() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(GeoGridCell.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        repository.aggregateGrid(new GeoGridQuery(2, 0, 0, 0, 1));
+
+        var aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(GeoGridCell.class));
+        var pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        var match = pipeline.get(0).get("$match", Document.class);
+        assertEquals(new Document("$gte", 0.0).append("$lte", 90.0), match.get("contact.coordinates.0"));
+        assertEquals(new Document("$gte", 0.0).append("$lte", 180.0), match.get("contact.coordinates.1"));
+        var row = pipeline.get(1).get("$group", Document.class).get("_id", Document.class).get("row", Document.class);
+        assertEquals(0L, row.getList("$min", Object.class).get(1));
+    }
+
+    private static Document near(ObjectId id, double distance) {
+        return new Document("_id", id).append("distance", distance);
+    }
+
+    private static Customer customer(String documentNumber) {
+        return Customer.builder().name("Test").documentNumber(documentNumber).build();
+    }
+}
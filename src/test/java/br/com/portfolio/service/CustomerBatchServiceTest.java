@@ -0,0 +1,182 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.payload.CreateCustomerBatchPayload;
+import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.helper.TestMessageSource;
+import br.com.portfolio.repository.CustomerRepository;
+import com.mongodb.ErrorCategory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.Validation;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+
+class CustomerBatchServiceTest {
+
+    private CustomerService customerService;
+    private CustomerRepository repository;
+    private DocumentNumberService documentNumberService;
+    private CustomerBatchService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        customerService = mock(CustomerService.class);
+        repository = mock(CustomerRepository.class);
+        documentNumberService = mock(DocumentNumberService.class);
+        service = new CustomerBatchService(customerService, repository, documentNumberService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new TestMessageSource("Batch Test"),
+                new SyncTaskExecutor());
+        when(customerService.createModel(any())).thenAnswer(invocation -> customer(invocation.getArgument(0)));
+        when(documentNumberService.findExisting(any())).thenReturn(Set.of());
+        when(repository.insertAll(any())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.forEach(customer -> customer.setId(new ObjectId()));
+            return Map.of();
+        });
+    }
+
+    @Test
+    void createsValidCustomersWithOneInsert() {
+        var response = service.create(batch(payload("38372550000"), payload("12345678909")));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals(201, response.getItems().get(0).getStatus());
+        assertEquals("38372550000", response.getItems().get(0).getCustomer().getDocumentNumber());
+        assertEquals("12345678909", response.getItems().get(1).getCustomer().getDocumentNumber());
+        verify(repository).insertAll(any());
+        verify(customerService, times(2)).enqueueIfPending(any());
+    }
+
+    @Test
+    void reportsInvalidCustomersWithoutGeocodingThem() {
+        var invalid = payload("12345678900");
+        invalid.setEmail("not an e-mail");
+
+        var response = service.create(batch(payload("38372550000"), invalid));
+
+        assertEquals(1, response.getCreated());
+        var item = response.getItems().get(1);
+        assertEquals(1, item.getIndex());
+        assertEquals(400, item.getStatus());
+        assertNull(item.getCustomer());
+        assertEquals(Set.of("documentNumber", "email"), Set.of(item.getErrors().get(0).getError(),
+                item.getErrors().get(1).getError()));
+        verify(customerService, never()).createModel(invalid);
+    }
+
+    @Test
+    void rejectsDocumentNumbersRepeatedInBatchOrAlreadyRegistered() {
+        when(documentNumberService.findExisting(Set.of("38372550000", "12345678909")))
+                .thenReturn(Set.of("12345678909"));
+
+        var response = service.create(batch(payload("38372550000"), payload("38372550000"), payload("12345678909")));
+
+        assertEquals(201, response.getItems().get(0).getStatus());
+        assertEquals(409, response.getItems().get(1).getStatus());
+        assertEquals("Batch Test", response.getItems().get(1).getErrors().get(0).getErrorDescription());
+        assertEquals(409, response.getItems().get(2).getStatus());
+        var inserted = insertedCustomers();
+        assertEquals(1, inserted.size());
+        assertEquals("38372550000", inserted.get(0).getDocumentNumber());
+    }
+
+    @Test
+    void reportsGeocodingFailuresAndInsertsTheRest() {
+        var unknown = payload("12345678909");
+        when(customerService.createModel(unknown)).thenThrow(new AddressNotFoundException());
+
+        var response = service.create(batch(payload("38372550000"), unknown));
+
+        assertEquals(201, response.getItems().get(0).getStatus());
+        assertEquals(404, response.getItems().get(1).getStatus());
+        assertEquals(1, insertedCustomers().size());
+    }
+
+    @Test
+    void reportsCustomersRejectedByUniqueIndex() {
+        doReturn(Map.of(0, ErrorCategory.DUPLICATE_KEY)).when(repository).insertAll(any());
+
+        var response = service.create(batch(payload("98765432100"), payload("11144477735")));
+
+        assertEquals(409, response.getItems().get(0).getStatus());
+        assertEquals(201, response.getItems().get(1).getStatus());
+        assertEquals(1, response.getFailed());
+        verify(customerService).enqueueIfPending(any());
+    }
+
+    @Test
+    void reportsOtherWriteErrorsOnlyForTheirCustomers() {
+        doReturn(Map.of(1, ErrorCategory.UNCATEGORIZED)).when(repository).insertAll(any());
+
+        var response = service.create(batch(payload("98765432100"), payload("11144477735"), payload("38372550000")));
+
+        assertEquals(201, response.getItems().get(0).getStatus());
+        assertEquals(500, response.getItems().get(1).getStatus());
+        assertEquals("Batch Test", response.getItems().get(1).getErrors().get(0).getErrorDescription());
+        assertEquals(201, response.getItems().get(2).getStatus());
+        assertEquals(2, response.getCreated());
+        verify(customerService, times(2)).enqueueIfPending(any());
+    }
+
+    @Test
+    void skipsInsertWhenNoCustomerIsLeft() {
+        var invalid = payload("38372550000");
+        invalid.setName(" ");
+
+        var response = service.create(batch(invalid));
+
+        assertEquals(0, response.getCreated());
+        assertEquals(400, response.getItems().get(0).getStatus());
+        verify(repository, never()).insertAll(any());
+    }
+
+    private List<Customer> insertedCustomers() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Customer>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static CreateCustomerBatchPayload batch(CreateCustomerPayload... payloads) {
+        return new CreateCustomerBatchPayload(List.of(payloads));
+    }
+
+    private static CreateCustomerPayload payload(String documentNumber) {
+        var payload = new CreateCustomerPayload();
+        payload.setName("Test");
+        payload.setBirthDate(LocalDate.of(2011, 12, 15));
+        payload.setDocumentNumber(documentNumber);
+        payload.setEmail("aa@test.com");
+        payload.setAddress("Rua Vergueiro, 777");
+        return payload;
+    }
+
+    private static Customer customer(CreateCustomerPayload payload) {
+        return Customer.builder()
+                .name(payload.getName())
+                .birthDate(payload.getBirthDate())
+                .documentNumber(payload.getDocumentNumber())
+                .email(payload.getEmail())
+                .contact(Contact.resolved(payload.getAddress(), List.of(-46.6, -23.5)))
+                .build();
+    }
+}
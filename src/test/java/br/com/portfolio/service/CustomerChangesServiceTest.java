@@ -0,0 +1,117 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.CustomerTombstone;
+import br.com.portfolio.domain.search.ChangesToken;
+import br.com.portfolio.exception.ChangesTokenExpiredException;
+import br.com.portfolio.exception.InvalidCursorException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class CustomerChangesServiceTest {
+
+    private final LocalDateTime modifiedDate = LocalDateTime.of(2024, 2, 1, 10, 0);
+    private CustomerRepository repository;
+    private CustomerChangesService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository = mock(CustomerRepository.class);
+        service = new CustomerChangesService(repository, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void firstCallReadsAllModificationsAndOnlyNewDeletions() {
+        var horizon = ArgumentCaptor.forClass(LocalDateTime.class);
+        var deletedAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        var customer = customer(new ObjectId(), modifiedDate);
+        when(repository.findModifiedAfter(isNull(), isNull(), horizon.capture(), eq(CustomerExportService.FIELDS),
+                eq(1))).thenReturn(List.of(customer));
+        when(repository.findDeletedAfter(deletedAfter.capture(), isNull(), any(), eq(1))).thenReturn(List.of());
+
+        var response = service.findChanges(null, null, 1);
+
+        assertTrue(horizon.getValue().isBefore(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(4)));
+        assertEquals(horizon.getValue().minusNanos(1_000_000), deletedAfter.getValue());
+        assertEquals(customer.getId().toHexString(), response.getModified().get(0).getId());
+        assertTrue(response.isHasMore());
+        var token = ChangesToken.decode(response.getToken());
+        assertEquals(modifiedDate, token.getModifiedDate());
+        assertEquals(customer.getId(), token.getModifiedId());
+        assertEquals(deletedAfter.getValue(), token.getDeletedDate());
+        assertNull(token.getDeletedId());
+    }
+
+    @Test
+    void nextCallResumesEachStreamFromToken() {
+        var now = LocalDateTime.now(ZoneOffset.UTC);
+        var customerId = new ObjectId();
+        var tombstone = new CustomerTombstone(new ObjectId(), now.minusMinutes(1));
+        var token = new ChangesToken(modifiedDate, customerId, now.minusHours(1), null);
+        when(repository.findModifiedAfter(eq(modifiedDate), eq(customerId), any(), any(), eq(10))).thenReturn(List.of());
+        when(repository.findDeletedAfter(eq(now.minusHours(1)), isNull(), any(), eq(10))).thenReturn(List.of(tombstone));
+
+        var response = service.findChanges(token.encode(), null, 10);
+
+        assertEquals(List.of(), response.getModified());
+        assertEquals(tombstone.getId().toHexString(), response.getDeleted().get(0).getId());
+        assertFalse(response.isHasMore());
+        var next = ChangesToken.decode(response.getToken());
+        assertTrue(next.getModifiedDate().isAfter(now.minusSeconds(6)));
+        assertNull(next.getModifiedId());
+        assertEquals(next.getModifiedDate(), next.getDeletedDate());
+    }
+
+    @Test
+    void sinceStartsBothStreams() {
+        var since = LocalDateTime.now(ZoneOffset.UTC).minusDays(1);
+        when(repository.findModifiedAfter(eq(since), isNull(), any(), any(), anyInt())).thenReturn(List.of());
+        when(repository.findDeletedAfter(eq(since), isNull(), any(), anyInt())).thenReturn(List.of());
+
+        service.findChanges(null, since, 10);
+
+        verify(repository).findModifiedAfter(eq(since), isNull(), any(), any(), eq(10));
+        verify(repository).findDeletedAfter(eq(since), isNull(), any(), eq(10));
+    }
+
+    @Test
+    void tokenOlderThanTombstonesWithChangesTokenExpiredException() {
+        var token = new ChangesToken(modifiedDate, null, LocalDateTime.now(ZoneOffset.UTC).minusDays(31), null);
+
+        assertThrows(ChangesTokenExpiredException.class, () -> service.findChanges(token.encode(), null, 10));
+        verify(repository, never()).findModifiedAfter(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void invalidTokenWithInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> service.findChanges("bm90LWEtdG9rZW4", null, 10));
+        assertThrows(InvalidCursorException.class, () -> service.findChanges("%%", null, 10));
+    }
+
+    private static Customer customer(ObjectId id, LocalDateTime lastModifiedDate) {
+        return Customer.builder().id(id).name("Ana").contact(Contact.builder().build())
+                .lastModifiedDate(lastModifiedDate).build();
+    }
+}
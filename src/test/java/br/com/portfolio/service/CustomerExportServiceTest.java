@@ -0,0 +1,82 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.configuration.JacksonConfig;
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GenderEnum;
+import br.com.portfolio.repository.CustomerRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.util.CloseableIterator;
+
+class CustomerExportServiceTest {
+
+    private CustomerRepository repository;
+    private CustomerExportService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository = mock(CustomerRepository.class);
+        service = new CustomerExportService(repository, new JacksonConfig().objectMapper(), 500);
+    }
+
+    @Test
+    void exportWritesOneLinePerCustomerAndClosesCursor() throws Exception {
+        var since = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        var first = Customer.builder().id(new ObjectId()).name("Ana").gender(GenderEnum.FEMALE)
+                .contact(Contact.pending("Avenida Paulista, 1000"))
+                .lastModifiedDate(LocalDateTime.of(2024, 2, 1, 10, 0)).build();
+        var second = Customer.builder().id(new ObjectId()).name("Bia").contact(Contact.builder().build()).build();
+        var cursor = cursor(first, second);
+        when(repository.stream(since, CustomerExportService.FIELDS, 500)).thenReturn(cursor);
+        var output = new ByteArrayOutputStream();
+
+        service.export(since, output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"id\":\"" + first.getId().toHexString() + "\""));
+        assertTrue(lines[0].contains("\"lastModifiedDate\":\"2024-02-01T10:00:00\""));
+        assertTrue(lines[0].contains("\"geocodingStatus\":\"PENDING\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"name\":\"Bia\""));
+        assertFalse(lines[1].contains("lastModifiedDate"));
+        verify(cursor).close();
+    }
+
+    @Test
+    void exportWithoutCustomersWritesNothing() throws Exception {
+        var cursor = cursor();
+        when(repository.stream(isNull(), anyList(), anyInt())).thenReturn(cursor);
+        var output = new ByteArrayOutputStream();
+
+        service.export(null, output);
+
+        assertEquals(0, output.size());
+        verify(cursor).close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CloseableIterator<Customer> cursor(Customer... customers) {
+        var iterator = List.of(customers).iterator();
+        CloseableIterator<Customer> cursor = mock(CloseableIterator.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
@@ -2,25 +2,53 @@ package br.com.portfolio.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import br.com.portfolio.component.CustomerCountCache;
+import br.com.portfolio.component.SpatialGrid.Neighbor;
 import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.GenderEnum;
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.GeocodingStatus;
+import br.com.portfolio.domain.payload.CoordinatePayload;
 import br.com.portfolio.domain.payload.CreateCustomerPayload;
+import br.com.portfolio.domain.payload.GeoBatchPayload;
+import br.com.portfolio.domain.payload.GeoPolygonPayload;
+import br.com.portfolio.domain.payload.PatchCustomerPayload;
 import br.com.portfolio.domain.payload.UpdateCustomerPayload;
 import br.com.portfolio.domain.response.CustomerDistanceResponse;
 import br.com.portfolio.domain.response.CustomerResponse;
+import br.com.portfolio.domain.search.CountMode;
 import br.com.portfolio.domain.search.CustomerSearchParams;
+import br.com.portfolio.domain.search.GeoNearCursor;
+import br.com.portfolio.domain.search.GeoSearchParams;
+import br.com.portfolio.domain.search.IdCursor;
+import br.com.portfolio.domain.search.KeysetCursor;
 import br.com.portfolio.exception.CustomerAlreadyExistsException;
 import br.com.portfolio.exception.CustomerNotFoundException;
+import br.com.portfolio.exception.CustomerNotGeocodedException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.exception.InvalidCursorException;
+import br.com.portfolio.exception.InvalidGeometryException;
 import br.com.portfolio.helper.MockGenerator;
 import br.com.portfolio.repository.CustomerRepository;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,17 +57,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.GeoResult;
-import org.springframework.data.geo.GeoResults;
 import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @ExtendWith(SpringExtension.class)
@@ -55,6 +94,20 @@ class CustomerServiceTest {
     CustomerRepository repository;
     @Mock
     GeoLocationService geoLocationService;
+    @Mock
+    DeferredGeocodingService deferredGeocodingService;
+    @Mock
+    CustomerSpatialIndex spatialIndex;
+    @Mock
+    DocumentNumberService documentNumberService;
+    @Spy
+    TaskExecutor geoSearchExecutor = new SyncTaskExecutor();
+    @Spy
+    CustomerCountCache countCache = new CustomerCountCache(100, Duration.ofMinutes(1));
+    @Captor
+    ArgumentCaptor<Update> updateCaptor;
+    @Captor
+    ArgumentCaptor<Criteria> criteriaCaptor;
     @InjectMocks
     private CustomerService service;
     private CreateCustomerPayload createCustomerPayload;
@@ -68,50 +121,186 @@ class CustomerServiceTest {
 
         customer = mockGenerator.generateFromJson("customer").as(Customer.class);
 
-        reset(repository, geoLocationService);
+        reset(repository, geoLocationService, deferredGeocodingService, spatialIndex, documentNumberService);
     }
 
     @Test
     void createWithSuccess() {
-        when(repository.existsByDocumentNumber(any())).thenReturn(false);
         when(repository.save(any())).thenReturn(customer);
 
         assertResult(service.create(createCustomerPayload));
 
-        verify(repository).existsByDocumentNumber(any());
         verify(repository).save(any());
     }
 
+    @Test
+    void createWithRegisteredDocumentNumberDoesNotGeocode() {
+        when(documentNumberService.findExisting(List.of(createCustomerPayload.getDocumentNumber())))
+                .thenReturn(Set.of(createCustomerPayload.getDocumentNumber()));
+
+        assertThrows(CustomerAlreadyExistsException.class, () -> service.create(createCustomerPayload));
+
+        verify(geoLocationService, never()).getLatLongByAddress(any());
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void createWithCustomerAlreadyExistsException() {
-        when(repository.existsByDocumentNumber(any())).thenReturn(true);
+        when(repository.save(any())).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
         assertThrows(CustomerAlreadyExistsException.class, () -> service.create(createCustomerPayload));
 
-        verify(repository).existsByDocumentNumber(any());
+        verify(repository).save(any());
+    }
+
+    @Test
+    void createWithDeferredGeocoding() {
+        when(deferredGeocodingService.isEnabled()).thenReturn(true);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            Customer saved = invocation.getArgument(0);
+            saved.setId(id);
+            return saved;
+        });
+
+        var response = service.create(createCustomerPayload);
+
+        assertEquals(GeocodingStatus.PENDING, response.getGeocodingStatus());
+        verify(geoLocationService, never()).getLatLongByAddress(any());
+        verify(deferredGeocodingService).enqueue(id, createCustomerPayload.getAddress());
+    }
+
+    @Test
+    void createWithGeocodingUnavailableFallsBackToDeferred() {
+        when(deferredGeocodingService.isFallbackEnabled()).thenReturn(true);
+        when(geoLocationService.getLatLongByAddress(any())).thenThrow(new GeocodingUnavailableException());
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = service.create(createCustomerPayload);
+
+        assertEquals(GeocodingStatus.PENDING, response.getGeocodingStatus());
+        verify(deferredGeocodingService).enqueue(any(), any());
+    }
+
+    @Test
+    void createWithGeocodingUnavailableAndNoFallback() {
+        when(geoLocationService.getLatLongByAddress(any())).thenThrow(new GeocodingUnavailableException());
+
+        assertThrows(GeocodingUnavailableException.class, () -> service.create(createCustomerPayload));
+
         verify(repository, never()).save(any());
     }
 
     @Test
     void updateWithSuccess() {
+        when(repository.update(eq(id), eq(updateCustomerPayload.getAddress()), any(), any()))
+                .thenReturn(Optional.of(customer));
+
+        assertResult(service.update(id, updateCustomerPayload));
+
+        verify(repository).update(eq(id), eq(updateCustomerPayload.getAddress()), criteriaCaptor.capture(),
+                updateCaptor.capture());
+        verify(repository, never()).findById(any());
+        verify(geoLocationService, never()).getLatLongByAddress(any());
+
+        var set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertTrue(set.keySet().containsAll(Set.of("name", "gender", "nickname", "email")));
+        var differences = (List<?>) criteriaCaptor.getValue().getCriteriaObject().get("$or");
+        assertEquals(4, differences.size());
+        assertEquals(new Document("name", new Document("$ne", "Test")), differences.get(0));
+    }
+
+    @Test
+    void updateWithoutChangesDoesNotWrite() {
+        updateCustomerPayload.setNickname(customer.getNickname());
+        when(repository.update(eq(id), eq(updateCustomerPayload.getAddress()), any(), any()))
+                .thenReturn(Optional.empty());
         when(repository.findById(id)).thenReturn(Optional.of(customer));
-        when(repository.save(any())).thenReturn(customer);
 
         assertResult(service.update(id, updateCustomerPayload));
-        verify(repository).findById(id);
-        verify(repository).save(any());
+
+        verify(repository, never()).update(any(), any(Update.class));
+        verify(repository, never()).save(any());
+        verify(geoLocationService, never()).getLatLongByAddress(any());
+    }
+
+    @Test
+    void updateWithNewAddressGeocodes() {
+        updateCustomerPayload.setAddress("Avenida Paulista, 1000");
+        when(repository.update(eq(id), eq("Avenida Paulista, 1000"), any(), any())).thenReturn(Optional.empty());
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+        when(geoLocationService.getLatLongByAddress("Avenida Paulista, 1000")).thenReturn(List.of(-23.56, -46.65));
+        when(repository.update(eq(id), any(Update.class))).thenReturn(Optional.of(customer));
+
+        service.update(id, updateCustomerPayload);
+
+        verify(repository).update(eq(id), updateCaptor.capture());
+        var set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(Set.of("nickname", "contact"), set.keySet());
     }
 
     @Test
     void updateWithCustomerNotFoundException() {
+        when(repository.update(eq(id), any(), any(), any())).thenReturn(Optional.empty());
         when(repository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(CustomerNotFoundException.class, () -> service.update(id, updateCustomerPayload));
 
         verify(repository).findById(id);
+        verify(repository, never()).update(eq(id), any(Update.class));
+    }
+
+    @Test
+    void patchWithoutAddressIsSingleWrite() {
+        var payload = new PatchCustomerPayload();
+        payload.setNickname("newNick");
+        when(repository.update(eq(id), any(Criteria.class), any())).thenReturn(Optional.of(customer));
+
+        assertResult(service.patch(id, payload));
+
+        verify(repository, never()).findById(any());
+        verify(repository).update(eq(id), any(Criteria.class), updateCaptor.capture());
+        var set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(Set.of("nickname"), set.keySet());
+    }
+
+    @Test
+    void patchWithSameAddressSpellingDoesNotGeocode() {
+        var payload = new PatchCustomerPayload();
+        payload.setAddress("rua  vergueiro , 777");
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+        when(repository.update(eq(id), any(Update.class))).thenReturn(Optional.of(customer));
+
+        assertResult(service.patch(id, payload));
+
+        verify(geoLocationService, never()).getLatLongByAddress(any());
+        verify(repository).update(eq(id), updateCaptor.capture());
+        var set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(Set.of("contact.address"), set.keySet());
+    }
+
+    @Test
+    void patchWithoutChangesDoesNotWrite() {
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+
+        assertResult(service.patch(id, new PatchCustomerPayload()));
+
+        verify(repository, never()).update(any(), any(Update.class));
+        verify(repository, never()).update(any(), any(Criteria.class), any());
         verify(repository, never()).save(any());
     }
 
+    @Test
+    void patchWithoutChangedValuesDoesNotWrite() {
+        var payload = new PatchCustomerPayload();
+        payload.setNickname(customer.getNickname());
+        when(repository.update(eq(id), any(Criteria.class), any())).thenReturn(Optional.empty());
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+
+        assertResult(service.patch(id, payload));
+
+        verify(repository, never()).update(any(), any(Update.class));
+    }
+
     @Test
     void findByIdWithSuccess() {
         when(repository.findById(id)).thenReturn(Optional.of(customer));
@@ -132,26 +321,21 @@ class CustomerServiceTest {
 
     @Test
     void deleteWithSuccess() {
-        when(repository.findById(id)).thenReturn(Optional.of(customer));
-
-        final var captor = ArgumentCaptor.forClass(Customer.class);
+        when(repository.remove(id)).thenReturn(true);
 
         service.delete(id);
 
-        verify(repository).findById(id);
-        verify(repository).delete(captor.capture());
-
-        assertEquals(captor.getValue().getId(), id);
+        verify(repository).remove(id);
+        verify(repository, never()).findById(any());
     }
 
     @Test
     void deleteWithCustomerNotFoundException() {
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.remove(id)).thenReturn(false);
 
         assertThrows(CustomerNotFoundException.class, () -> service.delete(id));
 
-        verify(repository).findById(id);
-        verify(repository, never()).save(any());
+        verify(repository).remove(id);
     }
 
     @Test
@@ -171,16 +355,362 @@ class CustomerServiceTest {
         assertEquals(response.getContent().size(), page.getPageSize());
     }
 
+    @Test
+    void findAllWithEstimatedCountSkipsCountWithoutFilters() {
+        var page = PageRequest.of(2, 1);
+        var params = new CustomerSearchParams();
+        when(repository.findSlice(params, page)).thenReturn(new SliceImpl<>(List.of(customer), page, true));
+        when(repository.estimatedCount()).thenReturn(1000L);
+
+        var response = service.findAll(page, params, CountMode.ESTIMATED);
+
+        assertResult(response.getContent().get(0));
+        assertEquals(1000, response.getTotalElements());
+        verify(repository, never()).count(any(CustomerSearchParams.class));
+        verify(repository, never()).findAll(any(Example.class), any(Pageable.class));
+    }
+
+    @Test
+    void findAllWithCachedCountCountsFiltersOnce() {
+        var page = PageRequest.of(0, 1);
+        var params = CustomerSearchParams.builder().name(customer.getName()).build();
+        when(repository.findSlice(params, page)).thenReturn(new SliceImpl<>(List.of(customer), page, true));
+        when(repository.count(params)).thenReturn(1L);
+
+        service.findAll(page, params, CountMode.ESTIMATED);
+        var response = service.findAll(page, params, CountMode.CACHED);
+
+        assertEquals(2, response.getTotalElements());
+        assertTrue(response.hasNext());
+        verify(repository, times(1)).count(params);
+        verify(repository, never()).estimatedCount();
+    }
+
+    @Test
+    void findAllWithCachedCountOnLastPageDoesNotCount() {
+        var page = PageRequest.of(3, 10);
+        var params = new CustomerSearchParams();
+        when(repository.findSlice(params, page)).thenReturn(new SliceImpl<>(List.of(customer), page, false));
+
+        var response = service.findAll(page, params, CountMode.CACHED);
+
+        assertEquals(31, response.getTotalElements());
+        verify(repository, never()).count(any(CustomerSearchParams.class));
+    }
+
+    @Test
+    void findSliceWithSuccess() {
+        var page = PageRequest.of(0, 1);
+        var params = new CustomerSearchParams();
+        when(repository.findSlice(params, page)).thenReturn(new SliceImpl<>(List.of(customer), page, true));
+
+        var response = service.findSlice(page, params);
+
+        assertResult(response.getContent().get(0));
+        assertTrue(response.hasNext());
+    }
+
+    @Test
+    void findAllByCursorSeeksAfterCursorValue() {
+        var params = CustomerSearchParams.builder().name(customer.getName()).build();
+        var after = new ObjectId();
+        when(repository.findAfter(params, "id", Sort.Direction.DESC, after, 1)).thenReturn(List.of(customer));
+
+        var page = service.findAll(params, "id", Sort.Direction.DESC,
+                1, new KeysetCursor("id", Sort.Direction.DESC, after.toHexString()).encode());
+
+        assertResult(page.getContent().get(0));
+        assertEquals(id, KeysetCursor.decode(page.getNextCursor(), "id", Sort.Direction.DESC).getKey());
+    }
+
+    @Test
+    void findAllByCursorLastPageHasNoCursor() {
+        var params = new CustomerSearchParams();
+        when(repository.findAfter(params, "documentNumber", Sort.Direction.ASC, null, 10)).thenReturn(List.of(customer));
+
+        var page = service.findAll(params, "documentNumber", Sort.Direction.ASC, 10, null);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findAllByCursorWithInvalidCursorExceptionForOtherSort() {
+        var cursor = new KeysetCursor("id", Sort.Direction.DESC, id.toHexString()).encode();
+        var params = new CustomerSearchParams();
+
+        assertThrows(InvalidCursorException.class,
+                () -> service.findAll(params, "documentNumber", Sort.Direction.DESC, 10, cursor));
+        assertThrows(InvalidCursorException.class, () -> service.findAll(params, "id", Sort.Direction.ASC, 10, cursor));
+        assertThrows(InvalidCursorException.class, () -> service.findAll(params, "id", Sort.Direction.DESC, 10, "%%"));
+        verify(repository, never()).findAfter(any(), any(), any(), any(), anyInt());
+    }
+
     @Test
     void findByLocationNear() {
         GeoResult<Customer> result = new GeoResult<>(customer, distance);
         when(repository.findById(id)).thenReturn(Optional.of(customer));
-        when(repository.findByContactNear(any(), any())).thenReturn(new GeoResults<>(List.of(result)));
+        when(repository.findNear(any(), any(), any(), any(), isNull(), eq(10))).thenReturn(List.of(result));
 
-        assertResult(service.findByLocationNear(200, id));
+        var page = service.findByLocationNear(200, id, 10, null, null);
 
+        assertResult(page.getContent());
+        assertNull(page.getNextCursor());
         verify(repository).findById(id);
-        verify(repository).findByContactNear(any(), any());
+        verify(repository).findNear(any(), eq(new Distance(200, Metrics.KILOMETERS)), isNull(), eq(id), isNull(), eq(10));
+    }
+
+    @Test
+    void findByLocationNearWithCursor() {
+        var origin = new ObjectId();
+        var tied = new ObjectId();
+        var cursor = new GeoNearCursor(2.5, tied).encode();
+        when(repository.findById(origin)).thenReturn(Optional.of(customer));
+        when(repository.findNear(any(), any(), any(), any(), isNull(), eq(1)))
+                .thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        var page = service.findByLocationNear(200, origin, 1, cursor, null);
+
+        assertResult(page.getContent());
+        verify(repository).findNear(any(), any(), eq(new GeoNearCursor(2.5, tied)), eq(origin), isNull(), eq(1));
+        assertEquals(new GeoNearCursor(2.5, id), GeoNearCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void findByLocationNearWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> service.findByLocationNear(200, id, 10, "not-a-cursor", null));
+
+        verify(repository, never()).findNear(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findByLocationNearWithPendingOriginThrowsCustomerNotGeocodedException() {
+        var origin = Customer.builder().id(id).contact(Contact.pending("Rua Vergueiro, 777")).build();
+        when(repository.findById(id)).thenReturn(Optional.of(origin));
+
+        assertThrows(CustomerNotGeocodedException.class, () -> service.findByLocationNear(200, id, 10, null, null));
+        assertThrows(CustomerNotGeocodedException.class,
+                () -> service.findCompactByLocationNear(200, id, 10, null, null));
+
+        verify(repository, never()).findNear(any(), any(), any(), any(), any(), anyInt());
+        verify(repository, never()).findNearCompact(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findByLocationNearWithSpatialIndex() {
+        var origin = new ObjectId();
+        var farther = new ObjectId();
+        var point = new Point(-23.5, -46.7);
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(origin)).thenReturn(Optional.of(point));
+        when(spatialIndex.findWithin(point, 200))
+                .thenReturn(List.of(new Neighbor(origin, 0), new Neighbor(id, 2.5), new Neighbor(farther, 3)));
+        when(repository.findAllById(List.of(id))).thenReturn(List.of(customer));
+
+        var page = service.findByLocationNear(200, origin, 1, null, null);
+
+        assertResult(page.getContent());
+        assertEquals(new GeoNearCursor(2.5, id), GeoNearCursor.decode(page.getNextCursor()));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).findNear(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findByLocationNearWithSpatialIndexContinuesTiesAfterCursorId() {
+        var origin = new ObjectId();
+        var first = new ObjectId("000000000000000000000001");
+        var point = new Point(-23.5, -46.7);
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(origin)).thenReturn(Optional.of(point));
+        when(spatialIndex.findWithin(point, 200))
+                .thenReturn(List.of(new Neighbor(first, 2.5), new Neighbor(id, 2.5), new Neighbor(new ObjectId(), 3)));
+        when(repository.findAllById(List.of(id))).thenReturn(List.of(customer));
+
+        var page = service.findByLocationNear(200, origin, 1, new GeoNearCursor(2.5, first).encode(), null);
+
+        assertResult(page.getContent());
+        assertEquals(new GeoNearCursor(2.5, id), GeoNearCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void findByLocationNearWithFiltersSkipsSpatialIndex() {
+        var filters = GeoSearchParams.builder().gender(GenderEnum.FEMALE).minAge(18).maxAge(30).build();
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+        when(repository.findNear(any(), any(), any(), any(), eq(filters), eq(10)))
+                .thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        assertResult(service.findByLocationNear(200, id, 10, null, filters).getContent());
+
+        verify(spatialIndex, never()).findWithin(any(), anyDouble());
+    }
+
+    @Test
+    void findCompactByLocationNear() {
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+        when(repository.findNearCompact(any(), any(), any(), any(), isNull(), eq(10)))
+                .thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        var page = service.findCompactByLocationNear(200, id, 10, null, null);
+
+        var response = page.getContent().get(0);
+        assertEquals(customer.getId().toHexString(), response.getId());
+        assertEquals(customer.getName(), response.getName());
+        assertEquals("2.5", response.getDistance());
+        verify(repository, never()).findNear(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findCompactByLocationNearWithSpatialIndex() {
+        var origin = new ObjectId();
+        var point = new Point(-23.5, -46.7);
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(origin)).thenReturn(Optional.of(point));
+        when(spatialIndex.findWithin(point, 200)).thenReturn(List.of(new Neighbor(origin, 0), new Neighbor(id, 2.5)));
+        when(repository.findCompactByIdIn(List.of(id))).thenReturn(List.of(customer));
+
+        var page = service.findCompactByLocationNear(200, origin, 10, null, null);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(customer.getName(), page.getContent().get(0).getName());
+        assertNull(page.getNextCursor());
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void findByLocationNearBatch() {
+        var unknown = new ObjectId();
+        var payload = GeoBatchPayload.builder()
+                .ids(List.of(id.toHexString(), unknown.toHexString(), id.toHexString()))
+                .maxDistanceInKm(200)
+                .limit(10)
+                .build();
+        when(repository.findAllById(List.of(id, unknown))).thenReturn(List.of(customer));
+        when(repository.findNear(any(), any(), any(), any(), eq(10))).thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        var result = service.findByLocationNear(payload);
+
+        assertEquals(List.of(id.toHexString()), List.copyOf(result.keySet()));
+        assertResult(result.get(id.toHexString()));
+        verify(repository).findNear(any(), eq(new Distance(200, Metrics.KILOMETERS)), isNull(), eq(id), eq(10));
+    }
+
+    @Test
+    void findByLocationNearBatchWithPendingOriginHasNoResults() {
+        var pending = new ObjectId();
+        var payload = GeoBatchPayload.builder()
+                .ids(List.of(pending.toHexString(), id.toHexString()))
+                .maxDistanceInKm(200)
+                .limit(10)
+                .build();
+        when(repository.findAllById(List.of(pending, id))).thenReturn(List.of(
+                Customer.builder().id(pending).contact(Contact.pending("Rua Vergueiro, 777")).build(), customer));
+        when(repository.findNear(any(), any(), any(), any(), eq(10))).thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        var result = service.findByLocationNear(payload);
+
+        assertEquals(List.of(pending.toHexString(), id.toHexString()), List.copyOf(result.keySet()));
+        assertEquals(List.of(), result.get(pending.toHexString()));
+        assertResult(result.get(id.toHexString()));
+        verify(repository).findNear(any(), any(), isNull(), eq(id), eq(10));
+        verify(repository, never()).findNear(any(), any(), any(), eq(pending), anyInt());
+    }
+
+    @Test
+    void findByLocationNearBatchWithSpatialIndex() {
+        var first = new ObjectId();
+        var second = new ObjectId();
+        var firstPoint = new Point(-23.5, -46.7);
+        var secondPoint = new Point(-23.6, -46.8);
+        var payload = GeoBatchPayload.builder()
+                .ids(List.of(first.toHexString(), second.toHexString()))
+                .maxDistanceInKm(200)
+                .limit(1)
+                .build();
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(first)).thenReturn(Optional.of(firstPoint));
+        when(spatialIndex.find(second)).thenReturn(Optional.of(secondPoint));
+        when(spatialIndex.findWithin(firstPoint, 200)).thenReturn(List.of(new Neighbor(first, 0), new Neighbor(id, 2.5)));
+        when(spatialIndex.findWithin(secondPoint, 200)).thenReturn(List.of(new Neighbor(id, 2.5), new Neighbor(first, 3)));
+        when(repository.findAllById(Set.of(id))).thenReturn(List.of(customer));
+
+        var result = service.findByLocationNear(payload);
+
+        assertEquals(List.of(first.toHexString(), second.toHexString()), List.copyOf(result.keySet()));
+        assertResult(result.get(first.toHexString()));
+        assertResult(result.get(second.toHexString()));
+        assertEquals(1, result.get(second.toHexString()).size());
+        verify(repository).findAllById(Set.of(id));
+        verify(repository, never()).findNear(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findWithinClosesPolygonAndReturnsCursor() {
+        var payload = GeoPolygonPayload.builder().vertices(List.of(
+                new CoordinatePayload(-23.5, -46.7), new CoordinatePayload(-23.5, -46.6),
+                new CoordinatePayload(-23.6, -46.6))).build();
+        var after = new ObjectId();
+        var polygonCaptor = ArgumentCaptor.forClass(GeoJsonPolygon.class);
+        when(repository.findWithin(polygonCaptor.capture(), eq(after), eq(1))).thenReturn(List.of(customer));
+
+        var page = service.findWithin(payload, 1, new IdCursor(after).encode());
+
+        assertResult(page.getContent().get(0));
+        assertEquals(id, IdCursor.decode(page.getNextCursor()).getId());
+        var ring = polygonCaptor.getValue().getPoints();
+        assertEquals(4, ring.size());
+        assertEquals(ring.get(0), ring.get(3));
+    }
+
+    @Test
+    void findWithinBoxLastPageHasNoCursor() {
+        when(repository.findWithin(any(), isNull(), eq(10))).thenReturn(List.of(customer));
+
+        var page = service.findWithinBox(-23.6, -46.7, -23.5, -46.6, 10, null);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findWithinBoxWithInvalidGeometryException() {
+        assertThrows(InvalidGeometryException.class, () -> service.findWithinBox(-23.5, -46.7, -23.6, -46.6, 10, null));
+
+        verify(repository, never()).findWithin(any(), any(), anyInt());
+    }
+
+    @Test
+    void findNearestById() {
+        when(repository.findById(id)).thenReturn(Optional.of(customer));
+        when(repository.findNear(any(), isNull(), isNull(), eq(id), eq(5)))
+                .thenReturn(List.of(new GeoResult<>(customer, distance)));
+
+        assertResult(service.findNearest(id, 5));
+    }
+
+    @Test
+    void findNearestByIdWithSpatialIndexAndFailedOriginThrowsCustomerNotGeocodedException() {
+        var failed = Contact.builder().address("Rua Inexistente, 1").coordinates(Contact.PENDING_COORDINATES)
+                .status(GeocodingStatus.FAILED).build();
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(id)).thenReturn(Optional.empty());
+        when(repository.findById(id)).thenReturn(Optional.of(Customer.builder().id(id).contact(failed).build()));
+
+        assertThrows(CustomerNotGeocodedException.class, () -> service.findNearest(id, 5));
+
+        verify(spatialIndex, never()).findNearest(any(), anyInt(), any());
+    }
+
+    @Test
+    void findNearestByCoordinateWithSpatialIndex() {
+        var point = new Point(-23.5, -46.7);
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.findNearest(point, 5, null)).thenReturn(List.of(new Neighbor(id, 2.5)));
+        when(repository.findAllById(List.of(id))).thenReturn(List.of(customer));
+
+        assertResult(service.findNearest(-23.5, -46.7, 5));
+
+        verify(repository, never()).findNear(any(), any(), any(), any(), anyInt());
     }
 
     private void assertResult(List<CustomerDistanceResponse> result) {
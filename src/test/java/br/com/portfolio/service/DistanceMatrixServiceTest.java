@@ -0,0 +1,117 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.domain.Contact;
+import br.com.portfolio.domain.Customer;
+import br.com.portfolio.domain.payload.DistanceMatrixPayload;
+import br.com.portfolio.exception.DistanceMatrixTooLargeException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Point;
+
+class DistanceMatrixServiceTest {
+
+    private final ObjectId paulista = new ObjectId();
+    private final ObjectId vergueiro = new ObjectId();
+    private final ObjectId unknown = new ObjectId();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private CustomerRepository repository;
+    private CustomerSpatialIndex spatialIndex;
+    private DistanceMatrixService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository = mock(CustomerRepository.class);
+        spatialIndex = mock(CustomerSpatialIndex.class);
+        service = new DistanceMatrixService(repository, spatialIndex, pool, 2, 100);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        pool.shutdown();
+    }
+
+    @Test
+    void computeReturnsDenseMatrixInRequestOrder() {
+        when(repository.findCoordinatesByIdIn(List.of(vergueiro, unknown, paulista)))
+                .thenReturn(List.of(customer(paulista, -46.6544, -23.5629), customer(vergueiro, -46.6388, -23.5705)));
+
+        var response = service.compute(payload(null, vergueiro, unknown, paulista, vergueiro));
+
+        assertEquals(List.of(vergueiro.toHexString(), paulista.toHexString()), response.getIds());
+        assertEquals(List.of(unknown.toHexString()), response.getMissing());
+        assertNull(response.getPairs());
+        assertEquals(0, response.getDistances()[0][0]);
+        assertEquals(1.803, response.getDistances()[0][1]);
+        assertEquals(1.803, response.getDistances()[1][0]);
+    }
+
+    @Test
+    void computeReadsOnlyUnindexedCustomersFromMongo() {
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.find(paulista)).thenReturn(Optional.of(new Point(-46.6544, -23.5629)));
+        when(spatialIndex.find(vergueiro)).thenReturn(Optional.empty());
+        when(repository.findCoordinatesByIdIn(List.of(vergueiro)))
+                .thenReturn(List.of(customer(vergueiro, -46.6388, -23.5705)));
+
+        var response = service.compute(payload(1.0, paulista, vergueiro));
+
+        assertNull(response.getDistances());
+        assertEquals(List.of(), response.getPairs());
+        assertEquals(List.of(), response.getMissing());
+
+        response = service.compute(payload(2.0, paulista, vergueiro));
+
+        assertEquals(1, response.getPairs().size());
+        assertEquals(0, response.getPairs().get(0).getFrom());
+        assertEquals(1, response.getPairs().get(0).getTo());
+        assertEquals(1.803, response.getPairs().get(0).getDistance());
+    }
+
+    @Test
+    void computeRejectsDenseMatrixAboveLimit() {
+        when(repository.findCoordinatesByIdIn(List.of(paulista, vergueiro, unknown))).thenReturn(List.of(
+                customer(paulista, -46.6544, -23.5629), customer(vergueiro, -46.6388, -23.5705),
+                customer(unknown, -43.1729, -22.9068)));
+
+        assertThrows(DistanceMatrixTooLargeException.class,
+                () -> service.compute(payload(null, paulista, vergueiro, unknown)));
+    }
+
+    @Test
+    void computeSkipsIndexUntilReady() {
+        when(repository.findCoordinatesByIdIn(List.of(paulista))).thenReturn(List.of());
+
+        var response = service.compute(payload(null, paulista));
+
+        verify(spatialIndex, never()).find(paulista);
+        assertEquals(List.of(), response.getIds());
+        assertEquals(List.of(paulista.toHexString()), response.getMissing());
+    }
+
+    private static DistanceMatrixPayload payload(Double maxDistanceInKm, ObjectId... ids) {
+        return DistanceMatrixPayload.builder()
+                .ids(Arrays.stream(ids).map(ObjectId::toHexString).collect(Collectors.toList()))
+                .maxDistanceInKm(maxDistanceInKm)
+                .build();
+    }
+
+    private static Customer customer(ObjectId id, double x, double y) {
+        return Customer.builder().id(id).contact(Contact.builder().coordinates(List.of(x, y)).build()).build();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.domain.Customer;
+import com.mongodb.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+class DocumentNumberServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private DocumentNumberService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new DocumentNumberService(mongoTemplate, new SimpleMeterRegistry(), true, 1000, 0.01, 100);
+    }
+
+    @Test
+    void findExistingBeforeLoadQueriesEverything() {
+        when(mongoTemplate.find(any(Query.class), eq(Customer.class))).thenReturn(List.of());
+
+        assertTrue(service.findExisting(List.of("38372550000")).isEmpty());
+
+        verify(mongoTemplate).find(any(Query.class), eq(Customer.class));
+    }
+
+    @Test
+    void findExistingSkipsDatabaseForNegatives() {
+        load("38372550000");
+
+        assertTrue(service.findExisting(List.of("11144477735", "52998224725")).isEmpty());
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Customer.class));
+    }
+
+    @Test
+    void findExistingQueriesProbableHits() {
+        load("38372550000");
+        service.register("11144477735");
+        when(mongoTemplate.find(any(Query.class), eq(Customer.class)))
+                .thenReturn(List.of(customer("38372550000"), customer("11144477735")));
+
+        assertEquals(Set.of("38372550000", "11144477735"),
+                service.findExisting(List.of("38372550000", "11144477735")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(String... documentNumbers) {
+        var iterator = List.of(documentNumbers).iterator();
+        CloseableIterator<Customer> customers = mock(CloseableIterator.class);
+        when(customers.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(customers.next()).thenAnswer(invocation -> customer(iterator.next()));
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(collection.estimatedDocumentCount()).thenReturn((long) documentNumbers.length);
+        when(mongoTemplate.getCollectionName(Customer.class)).thenReturn("customers");
+        when(mongoTemplate.getCollection("customers")).thenReturn(collection);
+        when(mongoTemplate.stream(any(Query.class), eq(Customer.class))).thenReturn(customers);
+        service.load();
+    }
+
+    private Customer customer(String documentNumber) {
+        return Customer.builder().documentNumber(documentNumber).build();
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.component.GeoGridCache;
+import br.com.portfolio.domain.search.GeoGridCell;
+import br.com.portfolio.domain.search.GeoGridQuery;
+import br.com.portfolio.exception.GeoGridTooLargeException;
+import br.com.portfolio.exception.InvalidGeometryException;
+import br.com.portfolio.repository.CustomerRepository;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Point;
+
+class GeoGridServiceTest {
+
+    private CustomerRepository repository;
+    private GeoGridService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository = mock(CustomerRepository.class);
+        service = new GeoGridService(repository, new GeoGridCache(100, Duration.ofMinutes(1)), 100);
+    }
+
+    @Test
+    void aggregateSnapsBoxToWholeCells() {
+        var expected = new GeoGridQuery(8, -17, -34, -17, -34);
+        when(repository.aggregateGrid(expected)).thenReturn(List.of(new GeoGridCell(-17, -34, 2, -23.56, -46.64)));
+
+        var cells = service.aggregate(-23.6, -46.7, -23.5, -46.6, 8);
+
+        assertEquals(1, cells.size());
+        assertEquals(-23.90625, cells.get(0).getMinLat());
+        assertEquals(-22.5, cells.get(0).getMaxLat());
+        assertEquals(2, cells.get(0).getCount());
+    }
+
+    @Test
+    void aggregateIsCachedUntilInvalidated() {
+        when(repository.aggregateGrid(any())).thenReturn(List.of());
+
+        service.aggregate(-23.6, -46.7, -23.5, -46.6, 8);
+        service.aggregate(-23.59, -46.69, -23.51, -46.61, 8);
+        verify(repository, times(1)).aggregateGrid(any());
+
+        service.invalidate(List.of(new Point(-23.55, -46.63)));
+        service.aggregate(-23.6, -46.7, -23.5, -46.6, 8);
+        verify(repository, times(2)).aggregateGrid(any());
+    }
+
+    @Test
+    void invalidateKeepsBlocksElsewhere() {
+        var rio = new GeoGridQuery(8, -17, -31, -17, -31);
+        when(repository.aggregateGrid(any())).thenReturn(List.of());
+        service.aggregate(-23.6, -46.7, -23.5, -46.6, 8);
+        service.aggregate(-22.95, -43.25, -22.85, -43.15, 8);
+
+        service.invalidate(List.of(new Point(-23.55, -46.63)));
+        service.aggregate(-23.6, -46.7, -23.5, -46.6, 8);
+        service.aggregate(-22.95, -43.25, -22.85, -43.15, 8);
+
+        verify(repository, times(2)).aggregateGrid(new GeoGridQuery(8, -17, -34, -17, -34));
+        verify(repository, times(1)).aggregateGrid(rio);
+    }
+
+    @Test
+    void aggregatePutsWorldEdgesInLastCells() {
+        when(repository.aggregateGrid(any())).thenReturn(List.of());
+
+        service.aggregate(0, 0, 90, 180, 2);
+
+        verify(repository).aggregateGrid(new GeoGridQuery(2, 0, 0, 0, 1));
+    }
+
+    @Test
+    void aggregateRejectsTooManyCells() {
+        assertThrows(GeoGridTooLargeException.class, () -> service.aggregate(-90, -180, 90, 180, 10));
+
+        verify(repository, never()).aggregateGrid(any());
+    }
+
+    @Test
+    void aggregateRejectsInvertedBox() {
+        assertThrows(InvalidGeometryException.class, () -> service.aggregate(-23.5, -46.7, -23.6, -46.6, 8));
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.portfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.portfolio.component.GeocodeCache;
+import br.com.portfolio.domain.Geocode;
+import br.com.portfolio.exception.AddressNotFoundException;
+import br.com.portfolio.exception.GeocodingUnavailableException;
+import br.com.portfolio.service.geocoder.Geocoder;
+import br.com.portfolio.service.geocoder.GeocoderGuard;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GeoLocationServiceTest {
+
+    private static final String ADDRESS = "Rua Vergueiro, 777";
+    private final List<Double> latLong = List.of(-23.530044, -46.7281788);
+    private GeocodeCache cache;
+    private GeocodeStoreService store;
+    private GeoLocationService service;
+    private Geocoder localGeocoder;
+    private Geocoder remoteGeocoder;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new GeocodeCache(10, Duration.ofMinutes(1));
+        store = mock(GeocodeStoreService.class);
+        localGeocoder = mock(Geocoder.class);
+        remoteGeocoder = mock(Geocoder.class);
+        when(localGeocoder.isLocal()).thenReturn(true);
+        when(localGeocoder.geocode(anyString())).thenReturn(Optional.empty());
+        when(remoteGeocoder.name()).thenReturn("remote");
+        var guard = mock(GeocoderGuard.class);
+        when(guard.guard(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new GeoLocationService(List.of(localGeocoder, remoteGeocoder), guard, cache, store, 10,
+                Duration.ofDays(30), 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getLatLongByAddressWithCacheHit() {
+        cache.put(ADDRESS, latLong);
+
+        assertEquals(latLong, service.getLatLongByAddress(ADDRESS));
+
+        verify(store, never()).find(anyString());
+    }
+
+    @Test
+    void getLatLongByAddressWithStoreHit() {
+        when(store.find(ADDRESS)).thenReturn(Optional.of(Geocode.builder().coordinates(latLong).build()));
+
+        assertEquals(latLong, service.getLatLongByAddress(ADDRESS));
+        assertEquals(latLong, cache.get(ADDRESS).orElseThrow());
+
+        verify(store, never()).save(anyString(), any(), anyString());
+    }
+
+    @Test
+    void getLatLongByAddressWithLocalGeocoderHit() {
+        when(localGeocoder.geocode(ADDRESS)).thenReturn(Optional.of(latLong));
+
+        assertEquals(latLong, service.getLatLongByAddress(ADDRESS));
+
+        verify(store, never()).find(anyString());
+        verify(remoteGeocoder, never()).geocode(anyString());
+    }
+
+    @Test
+    void getLatLongByAddressWithRemoteGeocoderStoresProvider() {
+        when(store.find(ADDRESS)).thenReturn(Optional.empty());
+        when(remoteGeocoder.geocode(ADDRESS)).thenReturn(Optional.of(latLong));
+
+        assertEquals(latLong, service.getLatLongByAddress(ADDRESS));
+
+        verify(store).save(ADDRESS, latLong, "remote");
+    }
+
+    @Test
+    void getLatLongByAddressWithUnknownAddress() {
+        when(store.find(ADDRESS)).thenReturn(Optional.empty());
+        when(remoteGeocoder.geocode(ADDRESS)).thenReturn(Optional.empty());
+
+        assertThrows(AddressNotFoundException.class, () -> service.getLatLongByAddress(ADDRESS));
+    }
+
+    @Test
+    void getLatLongByAddressWithConcurrentCallersSharesOneLookup() throws Exception {
+        var lookupStarted = new CountDownLatch(1);
+        var releaseLookup = new CountDownLatch(1);
+        when(store.find(anyString())).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await(5, TimeUnit.SECONDS);
+            return Optional.of(Geocode.builder().coordinates(latLong).build());
+        });
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var leader = executor.submit(() -> service.getLatLongByAddress(ADDRESS));
+            lookupStarted.await(5, TimeUnit.SECONDS);
+            var followers = List.of(
+                    executor.submit(() -> service.getLatLongByAddress("rua vergueiro, 777")),
+                    executor.submit(() -> service.getLatLongByAddress(" Rua  Vergueiro, 777")));
+            Thread.sleep(100);
+            releaseLookup.countDown();
+
+            assertEquals(latLong, leader.get(5, TimeUnit.SECONDS));
+            for (Future<List<Double>> follower : followers) {
+                assertEquals(latLong, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(store, times(1)).find(anyString());
+    }
+
+    @Test
+    void warmUpLoadsHottestGeocodes() {
+        when(store.findHottest(10)).thenReturn(List.of(Geocode.builder().address("rua vergueiro, 777").coordinates(latLong).build()));
+
+        service.warmUp();
+
+        assertEquals(latLong, cache.get(ADDRESS).orElseThrow());
+    }
+
+    @Test
+    void refreshStalePostponesUnknownAddressesAndStopsAtBatchSize() {
+        var unknown = Geocode.builder().address("rua desconhecida, 1").build();
+        var known = Geocode.builder().address("rua vergueiro, 777").build();
+        when(store.claimStale(Duration.ofDays(30), Duration.ofMinutes(5)))
+                .thenReturn(Optional.of(unknown), Optional.of(known), Optional.of(known));
+        when(remoteGeocoder.geocode("rua desconhecida, 1")).thenReturn(Optional.empty());
+        when(remoteGeocoder.geocode("rua vergueiro, 777")).thenReturn(Optional.of(latLong));
+
+        service.refreshStale();
+
+        verify(store).postponeRefresh(unknown);
+        verify(store).save("rua vergueiro, 777", latLong, "remote");
+        verify(store, times(2)).claimStale(any(), any());
+    }
+
+    @Test
+    void refreshStaleStopsWhenGeocodingIsUnavailable() {
+        var stale = Geocode.builder().address("rua vergueiro, 777").build();
+        when(store.claimStale(any(), any())).thenReturn(Optional.of(stale));
+        when(remoteGeocoder.geocode(anyString())).thenThrow(new GeocodingUnavailableException());
+
+        service.refreshStale();
+
+        verify(store, times(1)).claimStale(any(), any());
+        verify(store, never()).postponeRefresh(any());
+    }
+}
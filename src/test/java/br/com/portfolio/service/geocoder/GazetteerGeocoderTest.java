@@ -0,0 +1,42 @@
+package br.com.portfolio.service.geocoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.core.io.ClassPathResource;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GazetteerGeocoderTest {
+
+    private GazetteerGeocoder geocoder;
+
+    @BeforeAll
+    public void beforeAll() {
+        geocoder = new GazetteerGeocoder(new ClassPathResource("gazetteer.csv"));
+    }
+
+    @Test
+    void loadKeepsLastDuplicate() {
+        assertEquals(3, geocoder.size());
+        assertEquals(List.of(-23.5701, -46.6401), geocoder.geocode("Rua Vergueiro, 777").orElseThrow());
+    }
+
+    @Test
+    void geocodeWithNormalizedAddress() {
+        assertEquals(List.of(-23.5640, -46.6520), geocoder.geocode("avenida  PAULISTA , 1000").orElseThrow());
+    }
+
+    @Test
+    void geocodeWithPostalCodeFallback() {
+        assertEquals(List.of(-23.5710, -46.6410), geocoder.geocode("Rua Qualquer, 10 - 01504001").orElseThrow());
+    }
+
+    @Test
+    void geocodeWithUnknownAddress() {
+        assertTrue(geocoder.geocode("Rua Desconhecida, 1").isEmpty());
+    }
+}
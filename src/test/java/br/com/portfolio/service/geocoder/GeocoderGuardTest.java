@@ -0,0 +1,119 @@
+package br.com.portfolio.service.geocoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.portfolio.configuration.GeolocationConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = GeocoderGuardTest.Config.class)
+@TestPropertySource(properties = {
+        "local.geolocation.key=AIzaTestKey",
+        "local.geolocation.resilience.timeout=PT5S",
+        "local.geolocation.resilience.hedge.enabled=true",
+        "local.geolocation.resilience.hedge.min-delay=PT0.05S",
+        "local.geolocation.resilience.hedge.min-samples=1"})
+class GeocoderGuardTest {
+
+    @Autowired
+    private GeocoderGuard guard;
+    @Autowired
+    private BlockingJob job;
+
+    @AfterEach
+    public void afterEach() {
+        job.release.countDown();
+    }
+
+    @Test
+    void hedgeFiresWhileScheduledJobIsBlocking() throws InterruptedException {
+        assertTrue(job.started.await(5, TimeUnit.SECONDS));
+        var calls = new AtomicInteger();
+        var slowCall = new CountDownLatch(1);
+        var geocoder = guard.guard(new Geocoder() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public Optional<List<Double>> geocode(String address) {
+                if (calls.incrementAndGet() == 2) {
+                    try {
+                        slowCall.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return Optional.of(List.of(-23.5, -46.6));
+            }
+        });
+        geocoder.geocode("Rua Vergueiro, 777");
+
+        var start = System.nanoTime();
+        assertEquals(List.of(-23.5, -46.6), geocoder.geocode("Rua Vergueiro, 777").orElseThrow());
+        var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        slowCall.countDown();
+
+        assertEquals(3, calls.get());
+        assertTrue(elapsed < 2000, "hedge answered after " + elapsed + " ms");
+        assertEquals(1, job.release.getCount());
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ImportAutoConfiguration(TaskSchedulingAutoConfiguration.class)
+    @Import({GeolocationConfig.class, GeocoderGuard.class})
+    static class Config {
+
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        BlockingJob blockingJob() {
+            return new BlockingJob();
+        }
+    }
+
+    static class BlockingJob {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 60000)
+        public void run() throws InterruptedException {
+            started.countDown();
+            release.await(30, TimeUnit.SECONDS);
+        }
+    }
+}